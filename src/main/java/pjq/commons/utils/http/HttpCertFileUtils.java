@@ -56,23 +56,36 @@ public class HttpCertFileUtils {
 
     public static KeyManagerFactory getKeyManagerFactory(String cafilepath, String capwd, String keyStoreType,
         String keyManagerFactoryAlgorithm) throws Exception {
+        return getKeyManagerFactory(getKeyStore(cafilepath, capwd, keyStoreType), capwd, keyManagerFactoryAlgorithm);
+    }
+
+    /**
+     * 用已加载的keyStore获取KeyManagerFactory，避免重复读取证书文件
+     * 
+     * @param keyStore
+     * @param capwd
+     * @param keyManagerFactoryAlgorithm
+     * @return
+     * @throws Exception
+     */
+    public static KeyManagerFactory getKeyManagerFactory(KeyStore keyStore, String capwd,
+        String keyManagerFactoryAlgorithm) throws Exception {
+        KeyManagerFactory km = KeyManagerFactory.getInstance(keyManagerFactoryAlgorithm);
+        km.init(keyStore, capwd.toCharArray());
+        return km;
+    }
+
+    public static KeyStore getKeyStore(String cafilepath, String capwd, String keyStoreType) throws Exception {
         KeyStore keyStore = KeyStore.getInstance(keyStoreType);
         try (FileInputStream instream = new FileInputStream(new File(cafilepath))) {
             // 加载本地的证书进行https加密传输
             keyStore.load(instream, capwd.toCharArray()); // 设置证书密码
-            KeyManagerFactory km = KeyManagerFactory.getInstance(keyManagerFactoryAlgorithm);
-            km.init(keyStore, capwd.toCharArray());
-            return km;
+            return keyStore;
         }
     }
 
     public static KeyStore getPKCS12KeyStore(String cafilepath, String capwd) throws Exception {
-        KeyStore keyStore = KeyStore.getInstance(KEY_STORE_TYPE_PKCS12);
-        try (FileInputStream instream = new FileInputStream(new File(cafilepath))) {
-            // 加载本地的证书进行https加密传输
-            keyStore.load(instream, capwd.toCharArray()); // 设置证书密码
-            return keyStore;
-        }
+        return getKeyStore(cafilepath, capwd, KEY_STORE_TYPE_PKCS12);
     }
 
     /**
@@ -0,0 +1,270 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import pjq.commons.utils.CheckUtils;
+
+/**
+ * url参数(key1=value1&amp;key2=value2形式)的解析及编码<br>
+ * 1.保留参数顺序及重复的参数名<br>
+ * 2.没有=号的部分(如a=1&amp;flag中的flag)会被忽略(与原来的处理一致)；参数字符串中的&amp;号一律视为参数分隔符，<br>
+ * 参数值中的&amp;号需先编码，通过{@link #add(String, String)}或Map传入的参数值不会被拆分，编码时&amp;号会编码为%26<br>
+ * 3.编码规则与{@link java.net.URLEncoder}一致，但直接写入同一个StringBuilder，不产生中间字符串<br>
+ * 4.参数名或参数值为空的参数会被忽略(与原来的处理一致)
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public final class HttpQueryParams {
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private final List<String> names;
+    private final List<String> values;
+
+    private HttpQueryParams(int initialCapacity) {
+        names = new ArrayList<>(initialCapacity);
+        values = new ArrayList<>(initialCapacity);
+    }
+
+    public static HttpQueryParams create() {
+        return new HttpQueryParams(8);
+    }
+
+    /**
+     * 解析key1=value1&amp;key2=value2形式的参数字符串(参数不做解码)
+     *
+     * @param paramData
+     * @return
+     */
+    public static HttpQueryParams parse(String paramData) {
+        HttpQueryParams params = create();
+        if (CheckUtils.isEmpty(paramData)) {
+            return params;
+        }
+
+        int length = paramData.length();
+        for (int start = 0; start <= length;) {
+            int end = paramData.indexOf('&', start);
+            if (end < 0) {
+                end = length;
+            }
+            int equalIndex = indexOf(paramData, '=', start, end);
+            if (equalIndex > start) {
+                params.names.add(paramData.substring(start, equalIndex));
+                params.values.add(paramData.substring(equalIndex + 1, end));
+            }
+            start = end + 1;
+        }
+        params.removeEmpty();
+        return params;
+    }
+
+    /**
+     * 只在[start, end)范围内查找，避免每段都查找到字符串末尾
+     */
+    private static int indexOf(String str, char ch, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (str.charAt(i) == ch) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 从map中获取参数(按map的遍历顺序)
+     *
+     * @param paramMap
+     * @return
+     */
+    public static HttpQueryParams of(Map<String, String> paramMap) {
+        HttpQueryParams params = new HttpQueryParams(CheckUtils.isNotEmpty(paramMap) ? paramMap.size() : 8);
+        params.addAll(paramMap);
+        return params;
+    }
+
+    /**
+     * 添加参数，参数名或参数值为空时忽略
+     *
+     * @param name
+     * @param value
+     * @return
+     */
+    public HttpQueryParams add(String name, String value) {
+        if (CheckUtils.areNotEmpty(name, value)) {
+            names.add(name);
+            values.add(value);
+        }
+        return this;
+    }
+
+    public HttpQueryParams addAll(Map<String, String> paramMap) {
+        if (CheckUtils.isNotEmpty(paramMap)) {
+            paramMap.forEach(this::add);
+        }
+        return this;
+    }
+
+    public HttpQueryParams addAll(HttpQueryParams params) {
+        names.addAll(params.names);
+        values.addAll(params.values);
+        return this;
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    public boolean isEmpty() {
+        return names.isEmpty();
+    }
+
+    public String name(int index) {
+        return names.get(index);
+    }
+
+    public String value(int index) {
+        return values.get(index);
+    }
+
+    /**
+     * 转为map，重复的参数名以最后一个为准
+     *
+     * @return
+     */
+    public Map<String, String> toMap() {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            map.put(names.get(i), values.get(i));
+        }
+        return map;
+    }
+
+    /**
+     * 编码为url参数字符串
+     *
+     * @param charset
+     * @return
+     */
+    public String encode(Charset charset) {
+        return encodeTo(new StringBuilder(estimateLength()), charset).toString();
+    }
+
+    /**
+     * 编码并追加到sb中
+     *
+     * @param sb
+     * @param charset
+     * @return sb
+     */
+    public StringBuilder encodeTo(StringBuilder sb, Charset charset) {
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                sb.append('&');
+            }
+            appendEncoded(sb, names.get(i), charset);
+            sb.append('=');
+            appendEncoded(sb, values.get(i), charset);
+        }
+        return sb;
+    }
+
+    /**
+     * 不编码的参数字符串
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(estimateLength());
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                sb.append('&');
+            }
+            sb.append(names.get(i)).append('=').append(values.get(i));
+        }
+        return sb.toString();
+    }
+
+    private int estimateLength() {
+        int length = 0;
+        for (int i = 0; i < names.size(); i++) {
+            length += names.get(i).length() + values.get(i).length() + 2;
+        }
+        return length;
+    }
+
+    private void removeEmpty() {
+        for (int i = names.size() - 1; i >= 0; i--) {
+            if (!CheckUtils.areNotEmpty(names.get(i), values.get(i))) {
+                names.remove(i);
+                values.remove(i);
+            }
+        }
+    }
+
+    /**
+     * 按{@link java.net.URLEncoder}的规则编码并追加到sb中
+     */
+    private static void appendEncoded(StringBuilder sb, String str, Charset charset) {
+        int length = str.length();
+        int i = 0;
+        while (i < length) {
+            char c = str.charAt(i);
+            if (isUnreserved(c)) {
+                sb.append(c);
+                i++;
+            } else if (c == ' ') {
+                sb.append('+');
+                i++;
+            } else {
+                // 连续的需编码字符一起转为字节
+                int start = i;
+                while (i < length && !isUnreserved(str.charAt(i)) && str.charAt(i) != ' ') {
+                    i++;
+                }
+                for (byte b : str.substring(start, i).getBytes(charset)) {
+                    sb.append('%').append(HEX_DIGITS[(b >> 4) & 0x0F]).append(HEX_DIGITS[b & 0x0F]);
+                }
+            }
+        }
+    }
+
+    private static boolean isUnreserved(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '.' || c == '-'
+            || c == '*' || c == '_';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.ByteString;
+
+/**
+ * 已完整读到内存中的返回报文，可多次转换为{@link Response}给不同的请求使用(缓存、合并请求时用)
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+final class BufferedHttpResponse {
+    private final Protocol protocol;
+    private final int code;
+    private final String message;
+    private final Headers headers;
+    private final MediaType contentType;
+    private final ByteString body;
+
+    BufferedHttpResponse(Response response, ByteString body) {
+        this.protocol = response.protocol();
+        this.code = response.code();
+        this.message = response.message();
+        this.headers = response.headers();
+        this.contentType = response.body().contentType();
+        this.body = body;
+    }
+
+    int size() {
+        return body.size();
+    }
+
+    /**
+     * 转换为某个请求的返回报文，每次都创建新的body
+     *
+     * @param request
+     * @return
+     */
+    Response toResponse(Request request) {
+        long now = System.currentTimeMillis();
+        return new Response.Builder().request(request).protocol(protocol).code(code).message(message)
+            .headers(headers).body(ResponseBody.create(body, contentType)).sentRequestAtMillis(now)
+            .receivedResponseAtMillis(now).build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+/**
+ * 文件下载进度的回调接口
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@FunctionalInterface
+public interface DownloadProgressListener {
+    /**
+     * 下载进度变化时调用
+     *
+     * @param downloadedBytes
+     *            已下载的字节数(断点续传时包含之前已下载的部分)
+     * @param totalBytes
+     *            文件总字节数，未知时为-1
+     */
+    void onProgress(long downloadedBytes, long totalBytes);
+}
\ No newline at end of file
@@ -0,0 +1,241 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Response;
+import pjq.commons.utils.CheckUtils;
+
+/**
+ * 有界的异步请求提交队列<br>
+ * 交给okhttp执行的请求数不超过maxInFlight(与dispatcher的maxRequests一致)，其余请求在本队列中等待，
+ * 队列满时按{@link HttpQueueFullPolicy}处理，避免突发流量时okhttp内部的无界队列占满内存<br>
+ * 在请求的回调中提交新请求时，BLOCK方式改为CALLER_RUNS方式(回调结束后才释放额度，在回调中等待会死锁)
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@Slf4j
+public class HttpAsyncCallQueue {
+    /**
+     * 当前线程是否正在执行本队列请求的回调
+     */
+    private static final ThreadLocal<Boolean> IN_CALLBACK = new ThreadLocal<>();
+
+    private final int capacity;
+    private final int maxInFlight;
+    private final HttpQueueFullPolicy fullPolicy;
+    private final Deque<PendingCall> queue = new ArrayDeque<>();
+    private int inFlightCount;
+
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder callerRunsCount = new LongAdder();
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+
+    /**
+     * @param capacity
+     *            队列容量
+     * @param maxInFlight
+     *            同时交给okhttp执行的最大请求数
+     * @param fullPolicy
+     *            队列满时的处理方式
+     */
+    public HttpAsyncCallQueue(int capacity, int maxInFlight, HttpQueueFullPolicy fullPolicy) {
+        CheckUtils.checkNotFalse(capacity > 0 && maxInFlight > 0, "队列容量及最大执行数必须大于0");
+        CheckUtils.checkNotNull(fullPolicy, "队列满时的处理方式不能为空");
+        this.capacity = capacity;
+        this.maxInFlight = maxInFlight;
+        this.fullPolicy = fullPolicy;
+    }
+
+    /**
+     * 提交异步请求
+     *
+     * @param call
+     * @param callback
+     * @throws InterruptedIOException
+     *             BLOCK方式等待时被中断
+     * @throws RejectedExecutionException
+     *             FAIL_FAST方式队列已满
+     */
+    public void submit(Call call, Callback callback) throws InterruptedIOException {
+        submittedCount.increment();
+        PendingCall pendingCall = new PendingCall(call, callback);
+        PendingCall droppedCall = null;
+        boolean callerRuns = false;
+        synchronized (this) {
+            while (true) {
+                if (inFlightCount < maxInFlight && queue.isEmpty()) {
+                    inFlightCount++;
+                    waitTimes.record(0);
+                    break;
+                } else if (queue.size() < capacity) {
+                    queue.addLast(pendingCall);
+                    return;
+                }
+
+                // 队列已满
+                if (HttpQueueFullPolicy.BLOCK == fullPolicy && !Boolean.TRUE.equals(IN_CALLBACK.get())) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("等待异步请求队列的空位时被中断");
+                    }
+                } else if (HttpQueueFullPolicy.FAIL_FAST == fullPolicy) {
+                    rejectedCount.increment();
+                    throw new RejectedExecutionException("异步请求队列已满(" + capacity + ")");
+                } else if (HttpQueueFullPolicy.DROP_OLDEST == fullPolicy) {
+                    droppedCount.increment();
+                    droppedCall = queue.pollFirst();
+                    queue.addLast(pendingCall);
+                    break;
+                } else {
+                    callerRunsCount.increment();
+                    callerRuns = true;
+                    break;
+                }
+            }
+        }
+
+        if (CheckUtils.isNotNull(droppedCall)) {
+            droppedCall.callback.onFailure(droppedCall.call, new IOException("异步请求队列已满，请求被丢弃"));
+        } else if (callerRuns) {
+            runInCaller(pendingCall);
+        } else {
+            start(pendingCall);
+        }
+    }
+
+    /**
+     * 获取队列统计
+     *
+     * @return
+     */
+    public HttpAsyncQueueStats getStats() {
+        int queueDepth;
+        int currentInFlightCount;
+        synchronized (this) {
+            queueDepth = queue.size();
+            currentInFlightCount = inFlightCount;
+        }
+        return HttpAsyncQueueStats.builder().queueDepth(queueDepth).inFlightCount(currentInFlightCount)
+            .submittedCount(submittedCount.sum()).rejectedCount(rejectedCount.sum()).droppedCount(droppedCount.sum())
+            .callerRunsCount(callerRunsCount.sum()).meanWaitMillis(waitTimes.getMean())
+            .p99WaitMillis(waitTimes.getValueAtPercentile(99)).maxWaitMillis(waitTimes.getMax()).build();
+    }
+
+    private void start(PendingCall pendingCall) {
+        pendingCall.call.enqueue(new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                IN_CALLBACK.set(Boolean.TRUE);
+                try {
+                    pendingCall.callback.onResponse(call, response);
+                } finally {
+                    IN_CALLBACK.remove();
+                    onComplete();
+                }
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                IN_CALLBACK.set(Boolean.TRUE);
+                try {
+                    pendingCall.callback.onFailure(call, e);
+                } finally {
+                    IN_CALLBACK.remove();
+                    onComplete();
+                }
+            }
+        });
+    }
+
+    /**
+     * 在提交请求的线程中同步发送请求并回调(不占用inFlight额度)
+     */
+    private void runInCaller(PendingCall pendingCall) {
+        Response response;
+        try {
+            response = pendingCall.call.execute();
+        } catch (IOException e) {
+            pendingCall.callback.onFailure(pendingCall.call, e);
+            return;
+        }
+        try {
+            pendingCall.callback.onResponse(pendingCall.call, response);
+        } catch (IOException e) {
+            log.warn("异步请求的回调处理失败", e);
+        }
+    }
+
+    /**
+     * 请求结束后，从队列中取出下一个请求交给okhttp
+     */
+    private void onComplete() {
+        PendingCall nextCall;
+        synchronized (this) {
+            nextCall = queue.pollFirst();
+            if (CheckUtils.isNull(nextCall)) {
+                inFlightCount--;
+            } else {
+                waitTimes.record(System.currentTimeMillis() - nextCall.enqueuedAtMillis);
+            }
+            notifyAll(); // 唤醒BLOCK方式等待的线程
+        }
+        if (CheckUtils.isNotNull(nextCall)) {
+            start(nextCall);
+        }
+    }
+
+    private static class PendingCall {
+        private final Call call;
+        private final Callback callback;
+        private final long enqueuedAtMillis = System.currentTimeMillis();
+
+        PendingCall(Call call, Callback callback) {
+            this.call = call;
+            this.callback = callback;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 异步请求提交队列的统计
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@Getter
+@Builder
+@ToString
+public class HttpAsyncQueueStats {
+    /**
+     * 当前在队列中等待的请求数
+     */
+    private int queueDepth;
+
+    /**
+     * 当前已交给okhttp执行的请求数
+     */
+    private int inFlightCount;
+
+    /**
+     * 提交的请求数
+     */
+    private long submittedCount;
+
+    /**
+     * 队列满时被拒绝的请求数(FAIL_FAST)
+     */
+    private long rejectedCount;
+
+    /**
+     * 队列满时被丢弃的请求数(DROP_OLDEST)
+     */
+    private long droppedCount;
+
+    /**
+     * 队列满时在提交线程中同步执行的请求数(CALLER_RUNS)
+     */
+    private long callerRunsCount;
+
+    /**
+     * 请求在队列中的平均等待时间(毫秒)
+     */
+    private double meanWaitMillis;
+
+    /**
+     * 请求在队列中等待时间的99分位值(毫秒)
+     */
+    private long p99WaitMillis;
+
+    /**
+     * 请求在队列中的最大等待时间(毫秒)
+     */
+    private long maxWaitMillis;
+}
\ No newline at end of file
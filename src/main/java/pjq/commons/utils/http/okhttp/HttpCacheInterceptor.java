@@ -0,0 +1,292 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import okhttp3.CacheControl;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.ByteString;
+import pjq.commons.constant.HttpStatus;
+import pjq.commons.utils.CheckUtils;
+
+/**
+ * 按{@link HttpResponseCachePolicy}缓存GET请求返回报文的拦截器(内存缓存)<br>
+ * 只缓存200的返回报文；命中的缓存直接返回，不经过后面的重试、熔断等拦截器<br>
+ * 返回报文带Vary时记录其中的请求header，之后的请求这些header的值不同时按未命中处理(每个key只保留最后一个版本)，Vary为*时不缓存
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public class HttpCacheInterceptor implements Interceptor {
+    private static final String HEADER_AUTHORIZATION = "Authorization";
+    private static final String HEADER_ETAG = "ETag";
+    private static final String HEADER_LAST_MODIFIED = "Last-Modified";
+    private static final String HEADER_EXPIRES = "Expires";
+    private static final String HEADER_VARY = "Vary";
+
+    private final HttpResponseCachePolicy policy;
+    private final okhttp3.Cache diskCache;
+    private final Cache<String, CachedResponse> memoryCache;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder revalidatedCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * @param policy
+     * @param diskCache
+     *            客户端使用的磁盘缓存，只用于统计，可为空
+     */
+    public HttpCacheInterceptor(HttpResponseCachePolicy policy, okhttp3.Cache diskCache) {
+        this.policy = policy;
+        this.diskCache = diskCache;
+        this.memoryCache = Caffeine.newBuilder().maximumWeight(policy.getMaxMemoryBytes())
+            .weigher((String key, CachedResponse value) -> key.length() + value.response.size()).recordStats()
+            .build();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!isCacheable(request)) {
+            return chain.proceed(request);
+        }
+
+        String key = cacheKey(request);
+        CachedResponse cached = memoryCache.getIfPresent(key);
+        if (CheckUtils.isNotNull(cached) && !cached.varyMatches(request)) {
+            cached = null; // 缓存的是Vary中的header值不同的版本
+        }
+        if (CheckUtils.isNotNull(cached) && cached.isFresh() && !request.cacheControl().noCache()) {
+            hitCount.increment();
+            return cached.response.toResponse(request);
+        }
+
+        Request networkRequest = request;
+        if (CheckUtils.isNotNull(cached) && cached.canRevalidate()) {
+            Request.Builder builder = request.newBuilder();
+            if (CheckUtils.isNotNull(cached.etag)) {
+                builder.header("If-None-Match", cached.etag);
+            }
+            if (CheckUtils.isNotNull(cached.lastModified)) {
+                builder.header("If-Modified-Since", cached.lastModified);
+            }
+            networkRequest = builder.build();
+        }
+
+        Response networkResponse = chain.proceed(networkRequest);
+        if (CheckUtils.isNotNull(cached) && networkResponse.code() == HttpStatus.SC_NOT_MODIFIED) {
+            revalidatedCount.increment();
+            CachedResponse refreshed = cached.refresh(networkResponse, expiresAt(networkResponse));
+            networkResponse.close();
+            memoryCache.put(key, refreshed);
+            return refreshed.response.toResponse(request);
+        }
+        missCount.increment();
+        return store(key, request, networkResponse);
+    }
+
+    /**
+     * 获取缓存统计
+     *
+     * @return
+     */
+    public HttpCacheStats getStats() {
+        HttpCacheStats.HttpCacheStatsBuilder builder = HttpCacheStats.builder().hitCount(hitCount.sum())
+            .revalidatedCount(revalidatedCount.sum()).missCount(missCount.sum())
+            .evictionCount(memoryCache.stats().evictionCount()).entryCount(memoryCache.estimatedSize())
+            .weightBytes(memoryCache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L));
+        if (CheckUtils.isNotNull(diskCache)) {
+            builder.diskRequestCount(diskCache.requestCount()).diskHitCount(diskCache.hitCount())
+                .diskNetworkCount(diskCache.networkCount());
+        }
+        return builder.build();
+    }
+
+    /**
+     * 清空内存缓存
+     */
+    public void clear() {
+        memoryCache.invalidateAll();
+    }
+
+    private boolean isCacheable(Request request) {
+        if (!"GET".equals(request.method()) || request.cacheControl().noStore()) {
+            return false;
+        }
+        return CheckUtils.isNull(request.header(HEADER_AUTHORIZATION)) || policy.isKeyHeader(HEADER_AUTHORIZATION);
+    }
+
+    /**
+     * 规范化后的url(HttpUrl已把scheme、host转为小写并补全端口，这里再把参数排序)加上参与key计算的header
+     */
+    private String cacheKey(Request request) {
+        HttpUrl url = request.url();
+        StringBuilder key = new StringBuilder(128).append(url.scheme()).append("://").append(url.host()).append(':')
+            .append(url.port()).append(url.encodedPath());
+        String encodedQuery = url.encodedQuery();
+        if (CheckUtils.isNotEmpty(encodedQuery)) {
+            String[] params = encodedQuery.split("&");
+            Arrays.sort(params);
+            key.append('?').append(String.join("&", params));
+        }
+        for (String headerName : policy.getKeyHeaders()) {
+            String headerValue = request.header(headerName);
+            key.append('\n').append(headerName).append(':').append(CheckUtils.isNull(headerValue) ? "" : headerValue);
+        }
+        return key.toString();
+    }
+
+    private Response store(String key, Request request, Response response) throws IOException {
+        if (response.code() != HttpStatus.SC_OK || response.cacheControl().noStore()) {
+            return response;
+        }
+        Map<String, List<String>> varyHeaders = varyHeaders(request, response);
+        if (CheckUtils.isNull(varyHeaders)) {
+            return response; // Vary: *，每次都要请求服务端
+        }
+        long expiresAt = expiresAt(response);
+        String etag = response.header(HEADER_ETAG);
+        String lastModified = response.header(HEADER_LAST_MODIFIED);
+        if (expiresAt <= System.currentTimeMillis() && CheckUtils.areNull(etag, lastModified)) {
+            return response; // 既不新鲜也不能做条件请求，缓存没有意义
+        }
+        long contentLength = response.body().contentLength();
+        if (contentLength > policy.getMaxEntryBytes()) {
+            return response;
+        }
+
+        // peek不会消费原报文，调用方仍可正常读取返回的response
+        ByteString body = response.peekBody(policy.getMaxEntryBytes() + 1).byteString();
+        if (body.size() <= policy.getMaxEntryBytes()) {
+            memoryCache.put(key, new CachedResponse(new BufferedHttpResponse(response, body), varyHeaders, expiresAt,
+                etag, lastModified));
+        }
+        return response;
+    }
+
+    /**
+     * 返回报文Vary中列出的header在请求中的值(请求没有该header时为空列表)
+     *
+     * @return Vary中有*时返回null
+     */
+    private static Map<String, List<String>> varyHeaders(Request request, Response response) {
+        Map<String, List<String>> varyHeaders = new LinkedHashMap<>();
+        for (String vary : response.headers(HEADER_VARY)) {
+            for (String headerName : vary.split(",")) {
+                String trueHeaderName = headerName.trim();
+                if ("*".equals(trueHeaderName)) {
+                    return null;
+                } else if (CheckUtils.isNotEmpty(trueHeaderName)) {
+                    varyHeaders.put(trueHeaderName, request.headers(trueHeaderName));
+                }
+            }
+        }
+        return varyHeaders;
+    }
+
+    /**
+     * 按Cache-Control的max-age、no-cache或Expires计算报文的过期时间
+     */
+    private long expiresAt(Response response) {
+        long now = System.currentTimeMillis();
+        CacheControl cacheControl = response.cacheControl();
+        if (cacheControl.noCache()) {
+            return now;
+        } else if (cacheControl.maxAgeSeconds() >= 0) {
+            return now + TimeUnit.SECONDS.toMillis(cacheControl.maxAgeSeconds());
+        }
+        Date expires = response.headers().getDate(HEADER_EXPIRES);
+        return CheckUtils.isNotNull(expires) ? expires.getTime() : now + policy.getDefaultTtlMillis();
+    }
+
+    private static class CachedResponse {
+        private final BufferedHttpResponse response;
+        private final Map<String, List<String>> varyHeaders;
+        private final long expiresAtMillis;
+        private final String etag;
+        private final String lastModified;
+
+        CachedResponse(BufferedHttpResponse response, Map<String, List<String>> varyHeaders, long expiresAtMillis,
+            String etag, String lastModified) {
+            this.response = response;
+            this.varyHeaders = varyHeaders;
+            this.expiresAtMillis = expiresAtMillis;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * 请求中Vary列出的header值与缓存时的请求是否一致
+         */
+        boolean varyMatches(Request request) {
+            for (Map.Entry<String, List<String>> entry : varyHeaders.entrySet()) {
+                if (!entry.getValue().equals(request.headers(entry.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean isFresh() {
+            return System.currentTimeMillis() < expiresAtMillis;
+        }
+
+        boolean canRevalidate() {
+            return CheckUtils.isNotNull(etag) || CheckUtils.isNotNull(lastModified);
+        }
+
+        /**
+         * 304后更新过期时间，304带了新的ETag/Last-Modified时一起更新
+         */
+        CachedResponse refresh(Response notModifiedResponse, long newExpiresAtMillis) {
+            String newEtag = notModifiedResponse.header(HEADER_ETAG);
+            String newLastModified = notModifiedResponse.header(HEADER_LAST_MODIFIED);
+            return new CachedResponse(response, varyHeaders, newExpiresAtMillis,
+                CheckUtils.isNotNull(newEtag) ? newEtag : etag,
+                CheckUtils.isNotNull(newLastModified) ? newLastModified : lastModified);
+        }
+    }
+}
\ No newline at end of file
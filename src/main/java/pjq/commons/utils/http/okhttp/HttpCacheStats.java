@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * GET请求返回报文缓存的统计
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@Getter
+@Builder
+@ToString
+public class HttpCacheStats {
+    /**
+     * 直接使用内存缓存的请求数
+     */
+    private long hitCount;
+
+    /**
+     * 服务端返回304后使用内存缓存的请求数
+     */
+    private long revalidatedCount;
+
+    /**
+     * 没有命中内存缓存的请求数
+     */
+    private long missCount;
+
+    /**
+     * 内存缓存被淘汰的报文数
+     */
+    private long evictionCount;
+
+    /**
+     * 内存缓存当前的报文数
+     */
+    private long entryCount;
+
+    /**
+     * 内存缓存当前占用的字节数
+     */
+    private long weightBytes;
+
+    /**
+     * 经过磁盘缓存的请求数，没有磁盘缓存时为0
+     */
+    private long diskRequestCount;
+
+    /**
+     * 命中磁盘缓存(包括条件请求返回304)的请求数
+     */
+    private long diskHitCount;
+
+    /**
+     * 磁盘缓存中请求了网络的请求数
+     */
+    private long diskNetworkCount;
+
+    /**
+     * 内存缓存的命中率(包括304后使用缓存的请求)
+     *
+     * @return 没有请求时为0
+     */
+    public double getHitRate() {
+        long requestCount = hitCount + revalidatedCount + missCount;
+        return requestCount > 0 ? (double)(hitCount + revalidatedCount) / requestCount : 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,206 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.io.UncheckedIOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Dns;
+import pjq.commons.utils.CheckUtils;
+
+/**
+ * 带缓存的域名解析，通过{@link OKHttpClientConfig#getDns()}配置到客户端<br>
+ * 每次新建连接时okhttp都要解析域名，容器中DNS较慢时可减少解析的耗时
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@Slf4j
+public class HttpCachingDns implements Dns {
+    private final HttpDnsPolicy policy;
+    private final Cache<String, Entry> cache;
+    private final Set<String> refreshingHosts = ConcurrentHashMap.newKeySet();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder staleHitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder staticHitCount = new LongAdder();
+
+    public HttpCachingDns(HttpDnsPolicy policy) {
+        CheckUtils.checkNotNull(policy, "域名解析策略不能为空");
+        this.policy = policy;
+        // 超过可使用过期结果的时间后移除，不会再被使用
+        this.cache = Caffeine.newBuilder().maximumSize(policy.getMaxEntries())
+            .expireAfterWrite(policy.getTtlMillis() + Math.max(0, policy.getStaleMillis()), TimeUnit.MILLISECONDS)
+            .build();
+    }
+
+    @Override
+    public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+        List<InetAddress> staticAddresses = policy.getStaticHosts().get(hostname);
+        if (CheckUtils.isNotEmpty(staticAddresses)) {
+            staticHitCount.increment();
+            return staticAddresses;
+        }
+
+        Entry entry = cache.getIfPresent(hostname);
+        long now = System.currentTimeMillis();
+        if (CheckUtils.isNotNull(entry)) {
+            if (now < entry.expiresAtMillis) {
+                hitCount.increment();
+                return entry.addresses;
+            } else if (now < entry.expiresAtMillis + policy.getStaleMillis()) {
+                staleHitCount.increment();
+                refreshAsync(hostname);
+                return entry.addresses;
+            }
+        }
+
+        try {
+            // 同一个域名同时没有缓存时只解析一次，其它线程等待该结果
+            return cache.get(hostname, key -> {
+                missCount.increment();
+                try {
+                    return newEntry(key);
+                } catch (UnknownHostException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).addresses;
+        } catch (UncheckedIOException e) {
+            throw (UnknownHostException)e.getCause();
+        }
+    }
+
+    /**
+     * 获取解析缓存的统计
+     *
+     * @return
+     */
+    public HttpDnsStats getStats() {
+        return HttpDnsStats.builder().hitCount(hitCount.sum()).staleHitCount(staleHitCount.sum())
+            .missCount(missCount.sum()).staticHitCount(staticHitCount.sum()).entryCount(cache.estimatedSize())
+            .build();
+    }
+
+    /**
+     * 清空解析缓存
+     */
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    private Entry newEntry(String hostname) throws UnknownHostException {
+        List<InetAddress> addresses = policy.getDelegate().lookup(hostname);
+        if (policy.isInterleaveAddressFamilies()) {
+            addresses = interleave(addresses);
+        }
+        return new Entry(Collections.unmodifiableList(addresses), System.currentTimeMillis() + policy.getTtlMillis());
+    }
+
+    /**
+     * 后台重新解析，同一个域名同时只有一个解析任务
+     */
+    private void refreshAsync(String hostname) {
+        if (!refreshingHosts.add(hostname)) {
+            return;
+        }
+        try {
+            HttpDispatcherExecutors.sharedPlatformThreadExecutor().execute(() -> {
+                try {
+                    cache.put(hostname, newEntry(hostname));
+                } catch (Exception e) {
+                    // 旧结果在可使用过期结果的时间内继续使用
+                    log.warn("后台重新解析域名[{}]失败", hostname, e);
+                } finally {
+                    refreshingHosts.remove(hostname);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshingHosts.remove(hostname);
+            throw e;
+        }
+    }
+
+    /**
+     * 按第一个地址的类型开始，把IPv4及IPv6地址交替排列(同类地址保持原来的顺序)<br>
+     * 只调整顺序，okhttp仍按顺序逐个尝试连接，不会同时连接两类地址
+     */
+    static List<InetAddress> interleave(List<InetAddress> addresses) {
+        if (addresses.size() < 2) {
+            return addresses;
+        }
+        List<InetAddress> ipv4Addresses = new ArrayList<>(addresses.size());
+        List<InetAddress> ipv6Addresses = new ArrayList<>(addresses.size());
+        for (InetAddress address : addresses) {
+            (address instanceof Inet6Address ? ipv6Addresses : ipv4Addresses).add(address);
+        }
+        if (ipv4Addresses.isEmpty() || ipv6Addresses.isEmpty()) {
+            return addresses;
+        }
+
+        boolean ipv6First = addresses.get(0) instanceof Inet6Address;
+        List<InetAddress> first = ipv6First ? ipv6Addresses : ipv4Addresses;
+        List<InetAddress> second = ipv6First ? ipv4Addresses : ipv6Addresses;
+        List<InetAddress> interleaved = new ArrayList<>(addresses.size());
+        for (int i = 0; i < Math.max(first.size(), second.size()); i++) {
+            if (i < first.size()) {
+                interleaved.add(first.get(i));
+            }
+            if (i < second.size()) {
+                interleaved.add(second.get(i));
+            }
+        }
+        return interleaved;
+    }
+
+    private static class Entry {
+        private final List<InetAddress> addresses;
+        private final long expiresAtMillis;
+
+        Entry(List<InetAddress> addresses, long expiresAtMillis) {
+            this.addresses = addresses;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 一次http请求各阶段的耗时(毫秒)，没有经过的阶段为-1(如复用连接时没有DNS及建立连接的耗时)
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@Getter
+@Builder
+@ToString
+public class HttpCallTimings {
+    private String host;
+    private String method;
+
+    /**
+     * 是否收到返回(不论状态码)
+     */
+    private boolean success;
+
+    /**
+     * http状态码，没有收到返回时为0
+     */
+    private int statusCode;
+
+    /**
+     * DNS解析耗时
+     */
+    private long dnsMillis;
+
+    /**
+     * 建立连接耗时(包含TLS握手)
+     */
+    private long connectMillis;
+
+    /**
+     * TLS握手耗时
+     */
+    private long tlsMillis;
+
+    /**
+     * 从请求发送完(请求头及请求报文都已写出)到收到第一个返回字节的耗时，不含DNS、建立连接及TLS握手的耗时；重试或重定向时为最后一次的耗时
+     */
+    private long timeToFirstByteMillis;
+
+    /**
+     * 总耗时
+     */
+    private long totalMillis;
+}
\ No newline at end of file
@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.io.IOException;
+
+/**
+ * 单个host的熔断器，按最近{@link HttpResiliencePolicy#getSlidingWindowSize()}个请求的结果计算失败率<br>
+ * CLOSED：正常放行；OPEN：直接失败；HALF_OPEN：只放行一个试探请求，成功则恢复，失败则重新熔断
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public class HttpCircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN;
+    }
+
+    private final HttpResiliencePolicy policy;
+    private final boolean[] outcomes; // 环形记录最近的请求是否失败
+    private int outcomeIndex;
+    private int recordedCount;
+    private int failureCount;
+    private State state = State.CLOSED;
+    private long openedAtMillis;
+    private boolean isProbing;
+
+    public HttpCircuitBreaker(HttpResiliencePolicy policy) {
+        this.policy = policy;
+        this.outcomes = new boolean[Math.max(1, policy.getSlidingWindowSize())];
+    }
+
+    /**
+     * 判断是否可以发送请求
+     *
+     * @return
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case OPEN:
+                if (System.currentTimeMillis() - openedAtMillis < policy.getOpenDurationMillis()) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                isProbing = true;
+                return true;
+            case HALF_OPEN:
+                if (isProbing) {
+                    return false;
+                }
+                isProbing = true;
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * 记录请求结果
+     *
+     * @param isSuccess
+     */
+    public synchronized void record(boolean isSuccess) {
+        if (State.HALF_OPEN == state) {
+            isProbing = false;
+            if (isSuccess) {
+                reset();
+            } else {
+                open();
+            }
+            return;
+        }
+
+        if (recordedCount == outcomes.length) {
+            if (outcomes[outcomeIndex]) {
+                failureCount--;
+            }
+        } else {
+            recordedCount++;
+        }
+        outcomes[outcomeIndex] = !isSuccess;
+        if (!isSuccess) {
+            failureCount++;
+        }
+        outcomeIndex = (outcomeIndex + 1) % outcomes.length;
+
+        if (State.CLOSED == state && recordedCount >= policy.getMinimumCalls()
+            && (double)failureCount / recordedCount >= policy.getFailureRateThreshold()) {
+            open();
+        }
+    }
+
+    /**
+     * 请求没有结果(被取消或出现异常)时调用，释放半开状态的试探名额，避免一直停留在半开状态
+     */
+    public synchronized void release() {
+        isProbing = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtMillis = System.currentTimeMillis();
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        outcomeIndex = 0;
+        recordedCount = 0;
+        failureCount = 0;
+    }
+
+    /**
+     * 熔断中直接失败时抛出的异常
+     */
+    @SuppressWarnings("serial")
+    public static class CircuitBreakerOpenException extends IOException {
+        public CircuitBreakerOpenException(String host) {
+            super(host + "请求失败率过高，已熔断");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+/**
+ * http客户端连接池及dispatcher队列的当前状态
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@Getter
+@Builder
+@ToString
+public class HttpClientStats {
+    /**
+     * 连接池中的连接数
+     */
+    private int connectionCount;
+
+    /**
+     * 连接池中的空闲连接数
+     */
+    private int idleConnectionCount;
+
+    /**
+     * dispatcher中正在执行的请求数(包括同步请求)
+     */
+    private int runningCallsCount;
+
+    /**
+     * dispatcher中排队等待的异步请求数
+     */
+    private int queuedCallsCount;
+
+    public static HttpClientStats of(OkHttpClient client) {
+        ConnectionPool connectionPool = client.connectionPool();
+        Dispatcher dispatcher = client.dispatcher();
+        return HttpClientStats.builder().connectionCount(connectionPool.connectionCount())
+            .idleConnectionCount(connectionPool.idleConnectionCount())
+            .runningCallsCount(dispatcher.runningCallsCount()).queuedCallsCount(dispatcher.queuedCallsCount())
+            .build();
+    }
+}
\ No newline at end of file
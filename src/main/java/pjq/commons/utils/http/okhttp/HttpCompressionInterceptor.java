@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+import pjq.commons.utils.CheckUtils;
+
+/**
+ * 按{@link HttpCompressionPolicy}对请求报文做gzip压缩的拦截器<br>
+ * 报文边写边压缩(通过{@link GzipSink})，不会在内存中生成压缩前或压缩后的完整报文；
+ * 压缩后长度未知，使用chunked方式发送。返回报文的gzip解压由okhttp自动处理
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public class HttpCompressionInterceptor implements Interceptor {
+    private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+
+    private final HttpCompressionPolicy policy;
+
+    public HttpCompressionInterceptor(HttpCompressionPolicy policy) {
+        this.policy = policy;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        RequestBody body = request.body();
+        if (CheckUtils.isNotNull(request.header(HEADER_CONTENT_ENCODING))
+            || !policy.shouldCompress(request.url().host(), body)) {
+            return chain.proceed(request);
+        }
+
+        Request compressedRequest = request.newBuilder().header(HEADER_CONTENT_ENCODING, "gzip")
+            .method(request.method(), gzip(body)).build();
+        return chain.proceed(compressedRequest);
+    }
+
+    private static RequestBody gzip(RequestBody body) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return body.contentType();
+            }
+
+            @Override
+            public long contentLength() {
+                return -1; // 压缩后的长度未知
+            }
+
+            @Override
+            public boolean isOneShot() {
+                return body.isOneShot();
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                // 关闭gzipSink才会写出gzip的结尾，okhttp请求报文的sink允许在写完后关闭
+                try (BufferedSink gzipSink = Okio.buffer(new GzipSink(sink))) {
+                    body.writeTo(gzipSink);
+                }
+            }
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+
+import lombok.Builder;
+import lombok.Getter;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import pjq.commons.utils.CheckUtils;
+
+/**
+ * 请求报文的gzip压缩策略<br>
+ * 需对方服务支持"Content-Encoding: gzip"的请求，所以只对{@link #hosts}中的host压缩；
+ * 只压缩文本类报文(text/*、json、xml、表单)，文件等已压缩过的内容压缩收益小
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@Getter
+@Builder
+public class HttpCompressionPolicy {
+    /**
+     * 启用压缩的host，为空时不压缩任何请求
+     */
+    @Builder.Default
+    private Set<String> hosts = Collections.emptySet();
+
+    /**
+     * 报文长度达到该字节数时才压缩，默认1K；长度未知的流式报文总是压缩
+     */
+    @Builder.Default
+    private long minSize = 1024;
+
+    /**
+     * 判断是否压缩该请求报文
+     *
+     * @param host
+     * @param body
+     * @return
+     * @throws IOException
+     */
+    public boolean shouldCompress(String host, RequestBody body) throws IOException {
+        if (CheckUtils.isNull(body) || !hosts.contains(host) || !isCompressible(body.contentType())) {
+            return false;
+        }
+        long contentLength = body.contentLength();
+        return contentLength < 0 || contentLength >= minSize;
+    }
+
+    private static boolean isCompressible(MediaType contentType) {
+        if (CheckUtils.isNull(contentType)) {
+            return false;
+        }
+        String subtype = contentType.subtype();
+        return "text".equals(contentType.type()) || subtype.contains("json") || subtype.contains("xml")
+            || "x-www-form-urlencoded".equals(subtype);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求的截止时间，可在批量请求、异步请求及重试之间传递，各阶段的超时时间都不会超过剩余时间
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public final class HttpDeadline {
+    private final long deadlineNanos;
+
+    private HttpDeadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * 从现在开始timeout之后截止
+     *
+     * @param timeout
+     * @param unit
+     * @return
+     */
+    public static HttpDeadline after(long timeout, TimeUnit unit) {
+        return new HttpDeadline(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    /**
+     * 从现在开始timeoutMillis毫秒之后截止
+     *
+     * @param timeoutMillis
+     * @return
+     */
+    public static HttpDeadline afterMillis(long timeoutMillis) {
+        return after(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 剩余的毫秒数，已截止时返回0
+     *
+     * @return
+     */
+    public long remainingMillis() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * 取timeoutMillis与剩余时间的较小值
+     *
+     * @param timeoutMillis
+     *            小于等于0表示不限制
+     * @return
+     */
+    public long limit(long timeoutMillis) {
+        long remainingMillis = Math.max(1, remainingMillis());
+        return timeoutMillis > 0 ? Math.min(timeoutMillis, remainingMillis) : remainingMillis;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import pjq.commons.utils.CheckUtils;
+
+/**
+ * OKHttp异步请求dispatcher使用的线程池<br>
+ * 项目按java 1.8编译，所以JDK21+的虚拟线程通过反射创建，低版本时使用与okhttp默认一致的线程池
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class HttpDispatcherExecutors {
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutorMethod();
+
+    private static class SharedPlatformHolder {
+        private static final ExecutorService INSTANCE = newPlatformThreadExecutor();
+    }
+
+    private static class SharedVirtualHolder {
+        private static final ExecutorService INSTANCE = newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * 各客户端共用的普通线程池<br>
+     * 线程池本身不限线程数，并发数由各自的dispatcher限制，所以共用不会让慢的客户端占用快的客户端的额度
+     *
+     * @return
+     */
+    public static ExecutorService sharedPlatformThreadExecutor() {
+        return SharedPlatformHolder.INSTANCE;
+    }
+
+    /**
+     * 各客户端共用的虚拟线程池，不支持虚拟线程时为{@link #sharedPlatformThreadExecutor()}
+     *
+     * @return
+     */
+    public static ExecutorService sharedVirtualThreadPerTaskExecutor() {
+        return isVirtualThreadSupported() ? SharedVirtualHolder.INSTANCE : sharedPlatformThreadExecutor();
+    }
+
+    /**
+     * 当前JDK是否支持虚拟线程
+     *
+     * @return
+     */
+    public static boolean isVirtualThreadSupported() {
+        return CheckUtils.isNotNull(NEW_VIRTUAL_THREAD_EXECUTOR);
+    }
+
+    /**
+     * 创建每个任务一个虚拟线程的线程池，不支持虚拟线程时返回{@link #newPlatformThreadExecutor()}
+     *
+     * @return
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (isVirtualThreadSupported()) {
+            try {
+                return (ExecutorService)NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+            } catch (Exception e) {
+                log.warn("创建虚拟线程池失败，使用普通线程池", e);
+            }
+        }
+        return newPlatformThreadExecutor();
+    }
+
+    /**
+     * 创建与okhttp默认一致的线程池(线程数不限、空闲60秒回收、守护线程)
+     *
+     * @return
+     */
+    public static ExecutorService newPlatformThreadExecutor() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "OkHttp Dispatcher-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+            threadFactory);
+    }
+
+    private static Method findVirtualThreadExecutorMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null; // JDK21以下
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.net.InetAddress;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Builder;
+import lombok.Getter;
+import okhttp3.Dns;
+
+/**
+ * 域名解析的缓存策略，见{@link HttpCachingDns}
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@Getter
+@Builder
+public class HttpDnsPolicy {
+    /**
+     * 实际做解析的Dns，默认为系统解析
+     */
+    @Builder.Default
+    private Dns delegate = Dns.SYSTEM;
+
+    /**
+     * 解析结果的缓存时间(毫秒)，默认60秒
+     */
+    @Builder.Default
+    private long ttlMillis = 60000;
+
+    /**
+     * 解析结果过期后仍可使用的时间(毫秒)，在此期间先返回旧结果并在后台重新解析(重新解析失败时继续返回旧结果)；
+     * 超过该时间后旧结果不再使用，需重新解析。默认0即不使用过期的结果
+     */
+    @Builder.Default
+    private long staleMillis = 0;
+
+    /**
+     * 最多缓存的域名数，默认1000
+     */
+    @Builder.Default
+    private long maxEntries = 1000;
+
+    /**
+     * 固定的解析结果(类似hosts文件)，优先于缓存及实际解析
+     */
+    @Builder.Default
+    private Map<String, List<InetAddress>> staticHosts = Collections.emptyMap();
+
+    /**
+     * 是否把IPv4及IPv6地址交替排列，默认true<br>
+     * okhttp按顺序尝试连接解析出的地址，交替排列后某一类地址不通时不需要先把同类地址都试一遍；
+     * 但只调整顺序，不会同时连接两类地址，每个连不上的地址仍要等到连接超时，需要时可调小连接超时时间
+     */
+    @Builder.Default
+    private boolean interleaveAddressFamilies = true;
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 域名解析缓存的统计
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@Getter
+@Builder
+@ToString
+public class HttpDnsStats {
+    /**
+     * 使用未过期缓存的解析数
+     */
+    private long hitCount;
+
+    /**
+     * 使用已过期缓存的解析数(后台重新解析或重新解析失败时)
+     */
+    private long staleHitCount;
+
+    /**
+     * 实际解析的次数
+     */
+    private long missCount;
+
+    /**
+     * 使用固定解析结果的次数
+     */
+    private long staticHitCount;
+
+    /**
+     * 当前缓存的域名数
+     */
+    private long entryCount;
+
+    /**
+     * 缓存命中率(包括使用过期缓存及固定解析结果)
+     *
+     * @return 没有解析时为0
+     */
+    public double getHitRate() {
+        long hits = hitCount + staleHitCount + staticHitCount;
+        long lookupCount = hits + missCount;
+        return lookupCount > 0 ? (double)hits / lookupCount : 0;
+    }
+}
\ No newline at end of file
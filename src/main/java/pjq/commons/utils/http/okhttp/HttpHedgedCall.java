@@ -0,0 +1,161 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import pjq.commons.utils.CheckUtils;
+
+/**
+ * 对冲请求：主请求超过等待时间仍未返回时再发一个相同的请求，取先返回的结果，另一个请求会被取消<br>
+ * 主请求在调用线程中同步执行(不经过dispatcher的排队，排队时间不会触发对冲)，对冲请求由单独的线程池同步执行
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+final class HttpHedgedCall {
+    private static final ScheduledThreadPoolExecutor HEDGE_TIMER = newHedgeTimer();
+
+    private final CompletableFuture<Response> result = new CompletableFuture<>();
+    private final AtomicInteger pendingCalls = new AtomicInteger(1); // 主请求
+    private final Call primaryCall;
+    private volatile Call hedgeCall;
+
+    private HttpHedgedCall(Call primaryCall) {
+        this.primaryCall = primaryCall;
+    }
+
+    /**
+     * 同步执行对冲请求
+     *
+     * @param client
+     * @param primaryCall
+     *            主请求
+     * @param hedgeDelayMillis
+     *            主请求开始执行后，发出对冲请求前的等待时间
+     * @return
+     * @throws IOException
+     */
+    static Response execute(OkHttpClient client, Call primaryCall, long hedgeDelayMillis) throws IOException {
+        HttpHedgedCall hedgedCall = new HttpHedgedCall(primaryCall);
+        ScheduledFuture<?> hedgeTask = HEDGE_TIMER.schedule(() -> HttpDispatcherExecutors
+            .sharedPlatformThreadExecutor().execute(() -> hedgedCall.executeHedge(client)), hedgeDelayMillis,
+            TimeUnit.MILLISECONDS);
+        try {
+            hedgedCall.onResponse(primaryCall, primaryCall.execute());
+        } catch (IOException e) {
+            hedgedCall.onFailure(e);
+        } finally {
+            hedgeTask.cancel(false);
+        }
+
+        try {
+            return hedgedCall.result.get(); // 主请求失败时等待已发出的对冲请求
+        } catch (InterruptedException e) {
+            hedgedCall.cancelAll();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("对冲请求等待被中断");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException)e.getCause() : new IOException(e.getCause());
+        }
+    }
+
+    private void executeHedge(OkHttpClient client) {
+        if (result.isDone()) {
+            return;
+        }
+        pendingCalls.incrementAndGet();
+        // 标记为对冲请求，避免被合并到原请求上
+        Request request = primaryCall.request().newBuilder().tag(HttpHedgedCall.class, this).build();
+        Call call = client.newCall(request);
+        call.timeout().timeout(primaryCall.timeout().timeoutNanos(), TimeUnit.NANOSECONDS);
+        hedgeCall = call;
+        if (result.isDone()) {
+            call.cancel(); // 设置hedgeCall前主请求已返回
+        }
+        try {
+            onResponse(call, call.execute());
+        } catch (IOException e) {
+            onFailure(e);
+        }
+    }
+
+    private void onResponse(Call call, Response response) {
+        if (result.complete(response)) {
+            cancelOthers(call);
+        } else {
+            response.close(); // 另一个请求已先返回
+        }
+    }
+
+    private void onFailure(IOException e) {
+        // 已发出的请求全部失败时才失败
+        if (pendingCalls.decrementAndGet() == 0) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private void cancelOthers(Call winner) {
+        if (primaryCall != winner) {
+            primaryCall.cancel();
+        }
+        Call currentHedgeCall = hedgeCall;
+        if (CheckUtils.isNotNull(currentHedgeCall) && currentHedgeCall != winner) {
+            currentHedgeCall.cancel();
+        }
+    }
+
+    private void cancelAll() {
+        cancelOthers(null);
+    }
+
+    private static ScheduledThreadPoolExecutor newHedgeTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "OkHttp Hedge Timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true); // 大部分对冲任务会在主请求返回后取消
+        return timer;
+    }
+}
\ No newline at end of file
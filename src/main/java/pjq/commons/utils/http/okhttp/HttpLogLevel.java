@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+/**
+ * http请求的日志级别--<br>
+ * NONE：不打印日志<br>
+ * SUMMARY：打印请求地址、状态码及耗时<br>
+ * HEADERS：在SUMMARY基础上打印额外的header<br>
+ * BODY：在HEADERS基础上打印请求参数及返回报文
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public enum HttpLogLevel {
+    NONE, SUMMARY, HEADERS, BODY;
+
+    /**
+     * 当前级别是否需要打印requiredLevel级别的日志
+     *
+     * @param requiredLevel
+     * @return
+     */
+    public boolean isEnabled(HttpLogLevel requiredLevel) {
+        return NONE != this && ordinal() >= requiredLevel.ordinal();
+    }
+}
\ No newline at end of file
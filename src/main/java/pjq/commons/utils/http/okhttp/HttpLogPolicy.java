@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import lombok.Builder;
+import lombok.Getter;
+import pjq.commons.utils.CheckUtils;
+
+/**
+ * http请求的日志策略<br>
+ * 默认打印全部内容(与原来的日志一致)，请求量大时应降低级别、截断报文或按比例采样
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@Getter
+@Builder
+public class HttpLogPolicy {
+    /**
+     * 日志级别，默认{@link HttpLogLevel#BODY}
+     */
+    @Builder.Default
+    private HttpLogLevel level = HttpLogLevel.BODY;
+
+    /**
+     * 打印请求参数及返回报文时的最大字符数，超过时截断，小于等于0时不截断
+     */
+    @Builder.Default
+    private int maxBodyLength = 0;
+
+    /**
+     * 打印日志的请求比例，取值0~1，默认1即全部请求都打印
+     */
+    @Builder.Default
+    private double sampleRatio = 1;
+
+    /**
+     * 按采样比例获取某个请求实际使用的日志级别，没被采样的请求为{@link HttpLogLevel#NONE}
+     *
+     * @return
+     */
+    public HttpLogLevel sampleLevel() {
+        if (HttpLogLevel.NONE == level || sampleRatio <= 0) {
+            return HttpLogLevel.NONE;
+        } else if (sampleRatio >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRatio) {
+            return level;
+        } else {
+            return HttpLogLevel.NONE;
+        }
+    }
+
+    /**
+     * 按{@link #maxBodyLength}截断报文
+     *
+     * @param body
+     * @return
+     */
+    public String truncate(String body) {
+        if (maxBodyLength <= 0 || CheckUtils.isNull(body) || body.length() <= maxBodyLength) {
+            return body;
+        }
+        return body.substring(0, maxBodyLength) + "...(共" + body.length() + "字符)";
+    }
+}
\ No newline at end of file
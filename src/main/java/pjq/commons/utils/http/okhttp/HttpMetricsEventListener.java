@@ -0,0 +1,195 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import pjq.commons.utils.CheckUtils;
+
+/**
+ * 通过okhttp的{@link EventListener}记录请求各阶段的耗时，并在请求结束时交给{@link HttpMetricsCollector}<br>
+ * 请求带有{@link HttpCallTimingsHolder}的tag时，同时把耗时写入该tag<br>
+ * 每个请求一个实例，同一个请求的事件是顺序触发的
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public class HttpMetricsEventListener extends EventListener {
+    private final HttpMetricsCollector collector;
+
+    private long callStartNanos;
+    private long dnsStartNanos;
+    private long connectStartNanos;
+    private long secureConnectStartNanos;
+    private long requestSentNanos;
+    private long dnsNanos = -1;
+    private long connectNanos = -1;
+    private long tlsNanos = -1;
+    private long timeToFirstByteNanos = -1;
+    private int statusCode;
+
+    /**
+     * @param collector
+     *            为空时只把耗时写入请求的{@link HttpCallTimingsHolder}
+     */
+    public HttpMetricsEventListener(HttpMetricsCollector collector) {
+        this.collector = collector;
+    }
+
+    /**
+     * 创建用于{@link okhttp3.OkHttpClient.Builder#eventListenerFactory(EventListener.Factory)}的工厂
+     *
+     * @param collector
+     * @return
+     */
+    public static EventListener.Factory factory(HttpMetricsCollector collector) {
+        return call -> new HttpMetricsEventListener(collector);
+    }
+
+    @Override
+    public void callStart(Call call) {
+        callStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        dnsNanos = addElapsed(dnsNanos, dnsStartNanos);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        secureConnectStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        tlsNanos = addElapsed(tlsNanos, secureConnectStartNanos);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        connectNanos = addElapsed(connectNanos, connectStartNanos);
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol,
+        IOException ioe) {
+        connectNanos = addElapsed(connectNanos, connectStartNanos);
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        requestSentNanos = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        requestSentNanos = System.nanoTime();
+    }
+
+    /**
+     * 首字节耗时从请求发送完开始计算，重试或重定向时取最后一次
+     */
+    @Override
+    public void responseHeadersStart(Call call) {
+        timeToFirstByteNanos = System.nanoTime() - requestSentNanos;
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        statusCode = response.code();
+        HttpCallTimingsHolder timingsHolder = call.request().tag(HttpCallTimingsHolder.class);
+        if (CheckUtils.isNotNull(timingsHolder)) {
+            timingsHolder.set(buildTimings(call, true));
+        }
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        finish(call, true);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        finish(call, false);
+    }
+
+    /**
+     * 重试或重定向时同一阶段可能有多次，耗时累加
+     */
+    private static long addElapsed(long totalNanos, long startNanos) {
+        return Math.max(totalNanos, 0) + System.nanoTime() - startNanos;
+    }
+
+    private static long toMillis(long nanos) {
+        return nanos < 0 ? -1 : nanos / 1000000;
+    }
+
+    private void finish(Call call, boolean success) {
+        HttpCallTimings timings = buildTimings(call, success);
+        HttpCallTimingsHolder timingsHolder = call.request().tag(HttpCallTimingsHolder.class);
+        if (CheckUtils.isNotNull(timingsHolder) && (success || CheckUtils.isNull(timingsHolder.get()))) {
+            timingsHolder.set(timings); // 对冲请求共用tag，被取消的请求不覆盖成功请求的耗时
+        }
+        if (CheckUtils.isNotNull(collector) && !call.isCanceled()) { // 被取消的请求(如对冲请求中较慢的一个)不算失败
+            collector.onCallEnd(timings);
+        }
+    }
+
+    private HttpCallTimings buildTimings(Call call, boolean success) {
+        return HttpCallTimings.builder().host(call.request().url().host()).method(call.request().method())
+            .success(success).statusCode(statusCode).dnsMillis(toMillis(dnsNanos))
+            .connectMillis(toMillis(connectNanos)).tlsMillis(toMillis(tlsNanos))
+            .timeToFirstByteMillis(toMillis(timeToFirstByteNanos))
+            .totalMillis(toMillis(System.nanoTime() - callStartNanos)).build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,197 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+import org.apache.tika.Tika;
+
+import lombok.Getter;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.ByteString;
+import okio.Okio;
+import okio.Source;
+import pjq.commons.utils.CheckUtils;
+
+/**
+ * MultiPart表单中的文件部分<br>
+ * 内容可来自文件、ByteString或已知长度的输入流，发送时边读边写；
+ * 没有指定类型时用共享的Tika实例识别(文件按内容识别，其它按文件名识别)
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@Getter
+public final class HttpMultipartPart {
+    /**
+     * Tika是线程安全的，且创建时要加载识别规则，所以全局只创建一个
+     */
+    private static final Tika TIKA = new Tika();
+
+    /**
+     * 表单参数名
+     */
+    private final String name;
+
+    /**
+     * 文件名
+     */
+    private final String fileName;
+
+    /**
+     * 文件内容
+     */
+    private final RequestBody body;
+
+    private HttpMultipartPart(String name, String fileName, RequestBody body) {
+        CheckUtils.checkNotEmpty(name, "参数名不能为空");
+        CheckUtils.checkNotEmpty(fileName, "文件名不能为空");
+        this.name = name;
+        this.fileName = fileName;
+        this.body = body;
+    }
+
+    /**
+     * 用文件作为内容，按文件内容识别类型
+     *
+     * @param name
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public static HttpMultipartPart of(String name, File file) throws IOException {
+        CheckUtils.checkNotNull(file, "文件不能为空");
+        CheckUtils.checkNotFalse(file.isFile(), "文件[" + file.getAbsolutePath() + "]不存在");
+        return of(name, file, MediaType.parse(TIKA.detect(file)));
+    }
+
+    /**
+     * 用文件作为内容
+     *
+     * @param name
+     * @param file
+     * @param mediaType
+     * @return
+     */
+    public static HttpMultipartPart of(String name, File file, MediaType mediaType) {
+        return new HttpMultipartPart(name, file.getName(), HttpRequestBodies.of(file, mediaType));
+    }
+
+    /**
+     * 用文件作为内容，按文件内容识别类型
+     *
+     * @param name
+     * @param path
+     * @return
+     * @throws IOException
+     */
+    public static HttpMultipartPart of(String name, Path path) throws IOException {
+        CheckUtils.checkNotNull(path, "文件不能为空");
+        return of(name, path.toFile());
+    }
+
+    /**
+     * 用ByteString作为内容
+     *
+     * @param name
+     * @param fileName
+     * @param content
+     * @param mediaType
+     *            为空时按文件名识别
+     * @return
+     */
+    public static HttpMultipartPart of(String name, String fileName, ByteString content, MediaType mediaType) {
+        return new HttpMultipartPart(name, fileName,
+            HttpRequestBodies.of(content, CheckUtils.isNotNull(mediaType) ? mediaType : detect(fileName)));
+    }
+
+    /**
+     * 用输入流作为内容，发送完成后会关闭输入流；输入流只能读一次，所以不支持重试
+     *
+     * @param name
+     * @param fileName
+     * @param inputStream
+     * @param contentLength
+     *            内容长度，只会发送这么多字节，输入流不够长时报错
+     * @param mediaType
+     *            为空时按文件名识别
+     * @return
+     */
+    public static HttpMultipartPart of(String name, String fileName, InputStream inputStream, long contentLength,
+        MediaType mediaType) {
+        CheckUtils.checkNotNull(inputStream, "输入流不能为空");
+        CheckUtils.checkNotFalse(contentLength >= 0, "输入流的长度不能小于0");
+        MediaType trueMediaType = CheckUtils.isNotNull(mediaType) ? mediaType : detect(fileName);
+        return new HttpMultipartPart(name, fileName, new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return trueMediaType;
+            }
+
+            @Override
+            public long contentLength() {
+                return contentLength;
+            }
+
+            @Override
+            public boolean isOneShot() {
+                return true;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                try (Source source = Okio.source(inputStream)) {
+                    sink.write(source, contentLength);
+                }
+            }
+        });
+    }
+
+    /**
+     * 内容长度
+     *
+     * @return 未知时为-1
+     * @throws IOException
+     */
+    public long contentLength() throws IOException {
+        return body.contentLength();
+    }
+
+    private static MediaType detect(String fileName) {
+        return MediaType.parse(TIKA.detect(fileName));
+    }
+}
\ No newline at end of file
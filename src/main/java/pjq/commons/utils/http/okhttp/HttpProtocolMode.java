@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import okhttp3.Protocol;
+
+/**
+ * 客户端使用的http协议--<br>
+ * AUTO：https通过ALPN协商，服务端支持时使用HTTP/2，否则HTTP/1.1；http使用HTTP/1.1(okhttp默认)<br>
+ * HTTP_1_1：只使用HTTP/1.1，用于HTTP/2实现有问题的服务端<br>
+ * H2C：http使用prior knowledge方式的明文HTTP/2(h2c，服务端必须支持，不会降级)，https同AUTO<br>
+ * 使用HTTP/2时同一个host的并发请求复用一个连接，可把{@link OKHttpClientConfig#getMaxRequestsPerHost()}调大
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public enum HttpProtocolMode {
+    AUTO, HTTP_1_1, H2C;
+
+    /**
+     * http客户端的协议列表
+     *
+     * @return
+     */
+    public List<Protocol> httpProtocols() {
+        switch (this) {
+            case HTTP_1_1:
+                return Collections.singletonList(Protocol.HTTP_1_1);
+            case H2C:
+                return Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE);
+            default:
+                return Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1);
+        }
+    }
+
+    /**
+     * https客户端的协议列表
+     *
+     * @return
+     */
+    public List<Protocol> httpsProtocols() {
+        return HTTP_1_1 == this ? Collections.singletonList(Protocol.HTTP_1_1)
+            : Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1);
+    }
+}
\ No newline at end of file
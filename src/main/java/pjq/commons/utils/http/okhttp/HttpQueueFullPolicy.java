@@ -0,0 +1,46 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+/**
+ * 异步请求的提交队列满时的处理方式--<br>
+ * BLOCK：阻塞提交请求的线程，直到队列有空位(在请求的回调中提交时按CALLER_RUNS处理，避免死锁)<br>
+ * FAIL_FAST：提交时直接抛出{@link java.util.concurrent.RejectedExecutionException}<br>
+ * DROP_OLDEST：丢弃队列中等待最久的请求(以失败回调通知)，再放入新请求<br>
+ * CALLER_RUNS：在提交请求的线程中同步发送请求并回调，自然降低提交速度
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public enum HttpQueueFullPolicy {
+    BLOCK, FAIL_FAST, DROP_OLDEST, CALLER_RUNS;
+}
\ No newline at end of file
@@ -0,0 +1,321 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.alibaba.fastjson.JSON;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ByteString;
+import okio.ForwardingSink;
+import okio.Okio;
+import okio.Source;
+import pjq.commons.utils.CharsetUtils;
+import pjq.commons.utils.CheckUtils;
+
+/**
+ * 创建请求报文的工具类<br>
+ * 各方法都直接把已有的数据写到连接上，不会先转成String或复制一份byte[]，大报文不会在内存中翻倍
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class HttpRequestBodies {
+    private static final String NOT_NULL_MSG = "请求报文不能为空";
+    private static final MediaType MEDIA_TYPE_JSON = MediaType.get("application/json; charset=UTF-8");
+    private static final byte[] EMPTY_JSON = {'{', '}'};
+
+    /**
+     * 用ByteString作为请求报文
+     *
+     * @param content
+     * @param mediaType
+     * @return
+     */
+    public static RequestBody of(ByteString content, MediaType mediaType) {
+        CheckUtils.checkNotNull(content, NOT_NULL_MSG);
+        return RequestBody.create(content, mediaType);
+    }
+
+    /**
+     * 用byte数组作为请求报文(直接引用该数组，发送完成前不要修改数组内容)
+     *
+     * @param content
+     * @param mediaType
+     * @return
+     */
+    public static RequestBody of(byte[] content, MediaType mediaType) {
+        CheckUtils.checkNotNull(content, NOT_NULL_MSG);
+        return RequestBody.create(content, mediaType, 0, content.length);
+    }
+
+    /**
+     * 用byte数组的一部分作为请求报文(直接引用该数组，发送完成前不要修改数组内容)
+     *
+     * @param content
+     * @param offset
+     * @param byteCount
+     * @param mediaType
+     * @return
+     */
+    public static RequestBody of(byte[] content, int offset, int byteCount, MediaType mediaType) {
+        CheckUtils.checkNotNull(content, NOT_NULL_MSG);
+        return RequestBody.create(content, mediaType, offset, byteCount);
+    }
+
+    /**
+     * 用ByteBuffer中position到limit之间的内容作为请求报文<br>
+     * 不会改变传入buffer的position，可重复发送；支持堆外的buffer
+     *
+     * @param content
+     * @param mediaType
+     * @return
+     */
+    public static RequestBody of(ByteBuffer content, MediaType mediaType) {
+        CheckUtils.checkNotNull(content, NOT_NULL_MSG);
+        ByteBuffer readOnlyContent = content.asReadOnlyBuffer();
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return mediaType;
+            }
+
+            @Override
+            public long contentLength() {
+                return readOnlyContent.remaining();
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                ByteBuffer buffer = readOnlyContent.duplicate(); // 每次发送都从头开始
+                while (buffer.hasRemaining()) {
+                    sink.write(buffer);
+                }
+            }
+        };
+    }
+
+    /**
+     * 用文件作为请求报文，发送时边读边写
+     *
+     * @param file
+     * @param mediaType
+     * @return
+     */
+    public static RequestBody of(File file, MediaType mediaType) {
+        CheckUtils.checkNotNull(file, NOT_NULL_MSG);
+        CheckUtils.checkNotFalse(file.isFile(), "文件[" + file.getAbsolutePath() + "]不存在");
+        return RequestBody.create(file, mediaType);
+    }
+
+    /**
+     * 用文件作为请求报文，发送时边读边写
+     *
+     * @param path
+     * @param mediaType
+     * @return
+     */
+    public static RequestBody of(Path path, MediaType mediaType) {
+        CheckUtils.checkNotNull(path, NOT_NULL_MSG);
+        CheckUtils.checkNotFalse(Files.isRegularFile(path), "文件[" + path.toAbsolutePath() + "]不存在");
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return mediaType;
+            }
+
+            @Override
+            public long contentLength() throws IOException {
+                return Files.size(path);
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                try (Source source = Okio.source(path)) {
+                    sink.writeAll(source);
+                }
+            }
+        };
+    }
+
+    /**
+     * 用输入流作为请求报文，发送时边读边写<br>
+     * 输入流只能读一次，所以该报文不支持重试，发送完成后会关闭输入流
+     *
+     * @param inputStream
+     * @param contentLength
+     *            报文长度，未知时传-1(会使用chunked方式发送)
+     * @param mediaType
+     * @return
+     */
+    public static RequestBody of(InputStream inputStream, long contentLength, MediaType mediaType) {
+        CheckUtils.checkNotNull(inputStream, NOT_NULL_MSG);
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return mediaType;
+            }
+
+            @Override
+            public long contentLength() {
+                return contentLength;
+            }
+
+            @Override
+            public boolean isOneShot() {
+                return true;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                try (Source source = Okio.source(inputStream)) {
+                    sink.writeAll(source);
+                }
+            }
+        };
+    }
+
+    /**
+     * 用回调流式写出请求报文(长度未知，会使用chunked方式发送)
+     *
+     * @param writer
+     * @param mediaType
+     * @return
+     */
+    public static RequestBody of(RequestBodyWriter writer, MediaType mediaType) {
+        return of(writer, -1, mediaType);
+    }
+
+    /**
+     * 用回调流式写出请求报文
+     *
+     * @param writer
+     * @param contentLength
+     *            报文长度，未知时传-1(会使用chunked方式发送)
+     * @param mediaType
+     * @return
+     */
+    public static RequestBody of(RequestBodyWriter writer, long contentLength, MediaType mediaType) {
+        CheckUtils.checkNotNull(writer, "报文写出回调不能为空");
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return mediaType;
+            }
+
+            @Override
+            public long contentLength() {
+                return contentLength;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                writer.writeTo(sink);
+            }
+        };
+    }
+
+    /**
+     * 把对象序列化为JSON作为请求报文(UTF-8编码)<br>
+     * 发送时用fastjson直接写到连接上，不会生成完整报文的中间String；对象为null时发送空JSON
+     *
+     * @param body
+     * @return
+     */
+    public static RequestBody ofJson(Object body) {
+        return of(sink -> {
+            if (CheckUtils.isNull(body)) {
+                sink.write(EMPTY_JSON);
+            } else {
+                // 不能关闭该输出流，否则会关闭连接的sink
+                JSON.writeJSONString(sink.outputStream(), CharsetUtils.utf8(), body);
+            }
+        }, MEDIA_TYPE_JSON);
+    }
+
+    /**
+     * 包装请求报文，发送时回调上传进度
+     *
+     * @param body
+     * @param listener
+     * @return
+     */
+    public static RequestBody withProgress(RequestBody body, UploadProgressListener listener) {
+        CheckUtils.checkNotNull(body, NOT_NULL_MSG);
+        CheckUtils.checkNotNull(listener, "上传进度回调不能为空");
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return body.contentType();
+            }
+
+            @Override
+            public long contentLength() throws IOException {
+                return body.contentLength();
+            }
+
+            @Override
+            public boolean isOneShot() {
+                return body.isOneShot();
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                long totalBytes = contentLength();
+                BufferedSink progressSink = Okio.buffer(new ForwardingSink(sink) {
+                    private long uploadedBytes;
+
+                    @Override
+                    public void write(Buffer source, long byteCount) throws IOException {
+                        super.write(source, byteCount);
+                        uploadedBytes += byteCount;
+                        listener.onProgress(uploadedBytes, totalBytes);
+                    }
+                });
+                body.writeTo(progressSink);
+                progressSink.emit(); // 不能关闭，否则会关闭连接的sink
+            }
+        };
+    }
+}
\ No newline at end of file
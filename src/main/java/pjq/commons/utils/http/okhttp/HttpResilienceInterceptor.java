@@ -0,0 +1,179 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import pjq.commons.utils.CheckUtils;
+import pjq.commons.utils.http.okhttp.HttpCircuitBreaker.CircuitBreakerOpenException;
+
+/**
+ * 按{@link HttpResiliencePolicy}进行重试及熔断的拦截器(对冲请求在{@link OKHttpSenderBase}中处理)
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@Slf4j
+public class HttpResilienceInterceptor implements Interceptor {
+    private final OKHttpClientConfig config;
+    private final ConcurrentMap<String, HttpCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    public HttpResilienceInterceptor(OKHttpClientConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String host = request.url().host();
+        HttpResiliencePolicy policy = config.getResiliencePolicy(host);
+        if (CheckUtils.isNull(policy)) {
+            return chain.proceed(request);
+        }
+
+        HttpCircuitBreaker circuitBreaker = policy.isCircuitBreakerEnabled()
+            ? circuitBreakers.computeIfAbsent(host, key -> new HttpCircuitBreaker(policy)) : null;
+        if (CheckUtils.isNotNull(circuitBreaker) && !circuitBreaker.tryAcquire()) {
+            throw new CircuitBreakerOpenException(host);
+        }
+
+        // 每个请求(包括重试)只记录一次结果，被取消或出现非IO异常时不记录，但要释放半开状态的试探名额
+        boolean isRecorded = false;
+        HttpDeadline deadline = request.tag(HttpDeadline.class);
+        try {
+            int maxRetries = isRetryable(request) ? Math.max(0, policy.getMaxRetries()) : 0;
+            for (int retryCount = 0;; retryCount++) {
+                Response response;
+                try {
+                    response = chain.proceed(request);
+                } catch (IOException e) {
+                    if (chain.call().isCanceled()) {
+                        throw e; // 如对冲请求中较慢的一个，不算失败
+                    }
+                    if (retryCount >= maxRetries || isExpired(deadline)) {
+                        isRecorded = true;
+                        recordOutcome(circuitBreaker, false);
+                        throw e;
+                    }
+                    log.warn("请求{}失败，第{}次重试：{}", request.url(), retryCount + 1, e.getMessage());
+                    backoff(policy, retryCount, deadline);
+                    continue;
+                }
+
+                boolean isRetryStatusCode = policy.isRetryStatusCode(response.code());
+                if (!isRetryStatusCode || retryCount >= maxRetries || isExpired(deadline)) {
+                    isRecorded = true;
+                    recordOutcome(circuitBreaker, !isRetryStatusCode && response.code() < 500);
+                    return response;
+                }
+                log.warn("请求{}返回{}，第{}次重试", request.url(), response.code(), retryCount + 1);
+                response.close();
+                backoff(policy, retryCount, deadline);
+            }
+        } finally {
+            if (!isRecorded && CheckUtils.isNotNull(circuitBreaker)) {
+                circuitBreaker.release();
+            }
+        }
+    }
+
+    /**
+     * 熔断器的当前状态
+     *
+     * @param host
+     * @return 该host没有启用熔断或还没有请求时返回null
+     */
+    public HttpCircuitBreaker.State getCircuitBreakerState(String host) {
+        HttpCircuitBreaker circuitBreaker = circuitBreakers.get(host);
+        return CheckUtils.isNotNull(circuitBreaker) ? circuitBreaker.getState() : null;
+    }
+
+    private static void recordOutcome(HttpCircuitBreaker circuitBreaker, boolean isSuccess) {
+        if (CheckUtils.isNotNull(circuitBreaker)) {
+            circuitBreaker.record(isSuccess);
+        }
+    }
+
+    /**
+     * 只有幂等且请求体可以重复发送的请求才重试
+     */
+    static boolean isRetryable(Request request) {
+        RequestBody body = request.body();
+        if (CheckUtils.isNotNull(body) && body.isOneShot()) {
+            return false;
+        }
+        switch (request.method()) {
+            case "GET":
+            case "HEAD":
+            case "OPTIONS":
+            case "PUT":
+            case "DELETE":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 已超过截止时间时不再重试
+     */
+    private static boolean isExpired(HttpDeadline deadline) {
+        return CheckUtils.isNotNull(deadline) && deadline.isExpired();
+    }
+
+    /**
+     * 指数退避加随机抖动(full jitter)，有截止时间时不超过剩余的时间
+     */
+    private static void backoff(HttpResiliencePolicy policy, int retryCount, HttpDeadline deadline)
+        throws IOException {
+        long maxBackoff = Math.min(policy.getMaxRetryBackoffMillis(),
+            policy.getRetryBackoffMillis() << Math.min(retryCount, 20));
+        if (CheckUtils.isNotNull(deadline)) {
+            maxBackoff = Math.min(maxBackoff, deadline.remainingMillis());
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maxBackoff + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("重试等待被中断");
+        }
+    }
+}
\ No newline at end of file
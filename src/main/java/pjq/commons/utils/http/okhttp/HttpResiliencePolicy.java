@@ -0,0 +1,144 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import lombok.Builder;
+import lombok.Getter;
+import pjq.commons.utils.CheckUtils;
+
+/**
+ * http请求的容错策略，包括重试、对冲请求及熔断，可通过{@link OKHttpClientConfig}按客户端或按host配置<br>
+ * 1.重试：只重试幂等请求(GET/HEAD/OPTIONS/PUT/DELETE)，等待时间按指数退避并加随机抖动<br>
+ * 2.对冲请求：GET/HEAD请求在超过该host历史耗时的某个百分位仍未返回时，再发一个相同的请求，取先返回的结果<br>
+ * 3.熔断：某个host最近的失败率超过阈值时，在一段时间内直接失败，之后放一个请求试探是否恢复
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@Getter
+@Builder
+public class HttpResiliencePolicy {
+    /**
+     * 最大重试次数，默认0即不重试
+     */
+    @Builder.Default
+    private int maxRetries = 0;
+
+    /**
+     * 重试的基础等待时间(毫秒)，第n次重试最多等待retryBackoffMillis*2^(n-1)
+     */
+    @Builder.Default
+    private long retryBackoffMillis = 100;
+
+    /**
+     * 重试的最大等待时间(毫秒)
+     */
+    @Builder.Default
+    private long maxRetryBackoffMillis = 2000;
+
+    /**
+     * 返回这些状态码时也重试，默认502、503、504
+     */
+    @Builder.Default
+    private int[] retryStatusCodes = {502, 503, 504};
+
+    /**
+     * 是否启用对冲请求
+     */
+    @Builder.Default
+    private boolean hedgeEnabled = false;
+
+    /**
+     * 对冲请求的耗时百分位，默认95，即超过该host成功请求首字节耗时的p95仍未返回时发出对冲请求
+     */
+    @Builder.Default
+    private double hedgePercentile = 95;
+
+    /**
+     * 对冲请求的最小等待时间(毫秒)，该host的请求样本不足时也使用该值
+     */
+    @Builder.Default
+    private long minHedgeDelayMillis = 50;
+
+    /**
+     * 计算对冲等待时间所需的最少请求样本数
+     */
+    @Builder.Default
+    private int minHedgeSamples = 100;
+
+    /**
+     * 是否启用熔断
+     */
+    @Builder.Default
+    private boolean circuitBreakerEnabled = false;
+
+    /**
+     * 熔断的失败率阈值，取值0~1
+     */
+    @Builder.Default
+    private double failureRateThreshold = 0.5;
+
+    /**
+     * 计算失败率的最近请求数
+     */
+    @Builder.Default
+    private int slidingWindowSize = 100;
+
+    /**
+     * 计算失败率所需的最少请求数
+     */
+    @Builder.Default
+    private int minimumCalls = 20;
+
+    /**
+     * 熔断后直接失败的时间(毫秒)
+     */
+    @Builder.Default
+    private long openDurationMillis = 30000;
+
+    /**
+     * 状态码是否需要重试
+     *
+     * @param statusCode
+     * @return
+     */
+    public boolean isRetryStatusCode(int statusCode) {
+        if (CheckUtils.isNotNull(retryStatusCodes)) {
+            for (int retryStatusCode : retryStatusCodes) {
+                if (retryStatusCode == statusCode) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
\ No newline at end of file
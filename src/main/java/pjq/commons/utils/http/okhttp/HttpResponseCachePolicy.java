@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Set;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * GET请求返回报文的缓存策略<br>
+ * 内存缓存按返回报文的Cache-Control(max-age、no-cache、no-store)或Expires判断是否新鲜，过期后带上ETag/Last-Modified做条件请求，
+ * 服务端返回304时继续使用缓存的报文；配置了{@link #diskCacheDir}时再使用okhttp自带的磁盘缓存作为第二级缓存
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@Getter
+@Builder
+public class HttpResponseCachePolicy {
+    /**
+     * 内存缓存最多占用的字节数(按报文长度计算)，超过时淘汰最少使用的报文，默认16M
+     */
+    @Builder.Default
+    private long maxMemoryBytes = 16 * 1024 * 1024;
+
+    /**
+     * 单个报文超过该字节数时不放到内存缓存，默认1M
+     */
+    @Builder.Default
+    private long maxEntryBytes = 1024 * 1024;
+
+    /**
+     * 参与缓存key计算的请求header(如Accept-Language)，url会先做规范化(host小写、参数排序)<br>
+     * 带Authorization的请求只有该header在此配置中时才缓存，避免不同用户共用缓存
+     */
+    @Builder.Default
+    private Set<String> keyHeaders = Collections.emptySet();
+
+    /**
+     * 返回报文没有max-age及Expires时的新鲜期(毫秒)，默认0即每次都做条件请求
+     */
+    @Builder.Default
+    private long defaultTtlMillis = 0;
+
+    /**
+     * 磁盘缓存的目录，为空时不使用磁盘缓存
+     */
+    private File diskCacheDir;
+
+    /**
+     * 磁盘缓存最多占用的字节数，默认64M
+     */
+    @Builder.Default
+    private long maxDiskBytes = 64 * 1024 * 1024;
+
+    /**
+     * 某个header是否参与缓存key计算
+     *
+     * @param headerName
+     * @return
+     */
+    public boolean isKeyHeader(String headerName) {
+        for (String keyHeader : keyHeaders) {
+            if (keyHeader.equalsIgnoreCase(headerName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,237 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import okhttp3.Headers;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ByteString;
+import pjq.commons.constant.HttpStatus;
+import pjq.commons.utils.CheckUtils;
+
+/**
+ * http请求结果，包含状态码、header、各阶段耗时及返回报文<br>
+ * 1.返回报文在调用{@link #getBody()}、{@link #getBodyBytes()}、{@link #getBodyStream()}时才读取及解码<br>
+ * 2.未读取报文前持有连接，使用完需要调用{@link #close()}(异步请求的结果报文已读到内存中，可不关闭)<br>
+ * 3.非线程安全
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@Getter
+public class HttpResult implements Closeable {
+    private static final String HEADER_REDIRECT_URL = "location";
+
+    /**
+     * http状态码
+     */
+    private final int statusCode;
+
+    /**
+     * 返回的header
+     */
+    private final Headers headers;
+
+    /**
+     * 重定向的地址，非重定向时为空
+     */
+    private final String redirectUrl;
+
+    /**
+     * 从发送请求到收到返回header的耗时(毫秒)，异步请求为到读完报文的耗时
+     */
+    private final long costMillis;
+
+    @Getter(AccessLevel.NONE)
+    private final HttpCallTimingsHolder timingsHolder;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final Response response;
+
+    @Getter(AccessLevel.NONE)
+    private final long maxBufferedBodySize;
+
+    @Getter(AccessLevel.NONE)
+    private final String[] responseCharset;
+
+    @Getter(AccessLevel.NONE)
+    private ByteString bodyBytes;
+
+    @Getter(AccessLevel.NONE)
+    private String bodyStr;
+
+    @Getter(AccessLevel.NONE)
+    private boolean streamed;
+
+    HttpResult(Response response, long beginTime, HttpCallTimingsHolder timingsHolder, long maxBufferedBodySize,
+        String... responseCharset) {
+        this.statusCode = response.code();
+        this.headers = response.headers();
+        this.redirectUrl = getRedirectUrl(response);
+        this.costMillis = System.currentTimeMillis() - beginTime;
+        this.timingsHolder = timingsHolder;
+        this.response = response;
+        this.maxBufferedBodySize = maxBufferedBodySize;
+        this.responseCharset = responseCharset;
+    }
+
+    private static String getRedirectUrl(Response response) {
+        int statusCode = response.code();
+        if (statusCode != HttpStatus.SC_MOVED_PERMANENTLY && statusCode != HttpStatus.SC_MOVED_TEMPORARILY) {
+            return null;
+        }
+        List<String> headers = response.headers(HEADER_REDIRECT_URL);
+        return CheckUtils.isNotEmpty(headers) ? headers.get(0) : null;
+    }
+
+    public boolean isSuccess() {
+        return statusCode == HttpStatus.SC_OK;
+    }
+
+    public boolean isRedirect() {
+        return CheckUtils.isNotEmpty(redirectUrl);
+    }
+
+    /**
+     * 获取请求各阶段的耗时
+     * 
+     * @return 报文读完前总耗时为到收到返回header的耗时；请求被缓存等直接返回时可能为空
+     */
+    public HttpCallTimings getTimings() {
+        return CheckUtils.isNotNull(timingsHolder) ? timingsHolder.get() : null;
+    }
+
+    /**
+     * 获取返回报文(状态码非200时为错误报文)，第一次调用时才读取及解码，字符集优先用请求时指定的，其次是Content-Type中的charset，都没有时为UTF-8<br>
+     * 原始字节同时保留，之后仍可通过{@link #getBodyBytes()}获取
+     * 
+     * @return
+     * @throws IOException
+     */
+    public String getBody() throws IOException {
+        if (CheckUtils.isNull(bodyStr)) {
+            bufferBody();
+            String decoded = bodyBytes.string(OKHttpSenderBase.resolveCharset(response.body(), responseCharset));
+            bodyStr = decoded.length() > 0 && decoded.charAt(0) == '\uFEFF' ? decoded.substring(1) : decoded;
+        }
+        return bodyStr;
+    }
+
+    /**
+     * 获取返回报文的字节，不做解码
+     * 
+     * @return
+     * @throws IOException
+     */
+    public byte[] getBodyBytes() throws IOException {
+        return getBodyByteString().toByteArray();
+    }
+
+    /**
+     * 获取返回报文的字节，不做解码(返回的ByteString不可变，不会复制)
+     * 
+     * @return
+     * @throws IOException
+     */
+    public ByteString getBodyByteString() throws IOException {
+        return bufferBody().bodyBytes;
+    }
+
+    /**
+     * 获取返回报文的输入流，报文未读取时直接从连接读取(只能读取一次，不受报文大小限制)
+     * 
+     * @return
+     * @throws IOException
+     */
+    public InputStream getBodyStream() throws IOException {
+        if (CheckUtils.isNotNull(bodyBytes)) {
+            // 写入okio的segment池中的分段，不另外分配整块的byte[]
+            return new Buffer().write(bodyBytes).inputStream();
+        }
+        checkNotStreamed();
+        streamed = true;
+        return response.body().byteStream();
+    }
+
+    /**
+     * 把返回报文读到内存中(不解码)，之后可关闭连接
+     * 
+     * @return
+     * @throws IOException
+     */
+    HttpResult bufferBody() throws IOException {
+        if (CheckUtils.isNull(bodyBytes)) {
+            checkNotStreamed();
+            ResponseBody body = response.body();
+            OKHttpSenderBase.checkBodySize(body, maxBufferedBodySize);
+            bodyBytes = body.byteString();
+        }
+        return this;
+    }
+
+    /**
+     * 边读边解码返回报文，不保留原始字节，用于只需要字符串且读完即关闭的情况(如返回字符串的方法)
+     * 
+     * @return
+     * @throws IOException
+     */
+    String readBodyOnce() throws IOException {
+        if (CheckUtils.isNotNull(bodyStr) || CheckUtils.isNotNull(bodyBytes)) {
+            return getBody();
+        }
+        checkNotStreamed();
+        streamed = true;
+        ResponseBody body = response.body();
+        OKHttpSenderBase.checkBodySize(body, maxBufferedBodySize);
+        bodyStr = OKHttpSenderBase.decodeBody(body, OKHttpSenderBase.resolveCharset(body, responseCharset));
+        return bodyStr;
+    }
+
+    private void checkNotStreamed() {
+        if (streamed) {
+            throw new IllegalStateException("返回报文已通过流读取，不能再次读取");
+        }
+    }
+
+    @Override
+    public void close() {
+        response.close();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,188 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import pjq.commons.utils.CheckUtils;
+
+/**
+ * 合并相同的并发GET/HEAD请求的拦截器(single-flight)<br>
+ * 1.只处理通过{@link #markShareable(Request)}标记的请求，即返回报文本来就要完整读到内存中的请求，流式处理的请求不合并<br>
+ * 2.url及header(按原始值比较，包括Authorization、Cookie等凭证)都相同的请求同时进行时，只有第一个请求真正发出，
+ * 其它请求等待并共用它的返回报文；
+ * 返回报文超过{@link #maxBodyBytes}时等待的请求再各自发出<br>
+ * 3.第一个请求被取消或超时(它的超时时间可能比等待的请求短)时，等待的请求也各自发出，不跟着失败
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public class HttpSingleFlightInterceptor implements Interceptor {
+    private final long maxBodyBytes;
+    private final ConcurrentMap<String, CompletableFuture<BufferedHttpResponse>> inFlightCalls =
+        new ConcurrentHashMap<>();
+    private final LongAdder executedCount = new LongAdder();
+    private final LongAdder collapsedCount = new LongAdder();
+
+    /**
+     * 标记请求的返回报文可共用的tag
+     */
+    private enum Shareable {
+        INSTANCE
+    }
+
+    /**
+     * @param maxBodyBytes
+     *            可共用的返回报文最大字节数
+     */
+    public HttpSingleFlightInterceptor(long maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    /**
+     * 标记请求可以和相同的并发请求合并，只用于返回报文会完整读到内存中的请求
+     *
+     * @param request
+     * @return 新的请求对象
+     */
+    public static Request markShareable(Request request) {
+        return request.newBuilder().tag(Shareable.class, Shareable.INSTANCE).build();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        // 对冲请求本来就是要再发一次，不能合并到原请求上
+        if (!("GET".equals(request.method()) || "HEAD".equals(request.method()))
+            || CheckUtils.isNull(request.tag(Shareable.class))
+            || CheckUtils.isNotNull(request.tag(HttpHedgedCall.class))) {
+            return chain.proceed(request);
+        }
+
+        String key = flightKey(request);
+        CompletableFuture<BufferedHttpResponse> flight = new CompletableFuture<>();
+        CompletableFuture<BufferedHttpResponse> existingFlight = inFlightCalls.putIfAbsent(key, flight);
+        if (CheckUtils.isNotNull(existingFlight)) {
+            BufferedHttpResponse sharedResponse = await(chain, existingFlight);
+            if (CheckUtils.isNull(sharedResponse)) {
+                return chain.proceed(request); // 报文太大不能共用，或第一个请求被取消/超时
+            }
+            collapsedCount.increment();
+            return sharedResponse.toResponse(request);
+        }
+
+        executedCount.increment();
+        try {
+            Response response = chain.proceed(request);
+            BufferedHttpResponse sharedResponse = buffer(response);
+            flight.complete(sharedResponse);
+            return CheckUtils.isNull(sharedResponse) ? response : sharedResponse.toResponse(request);
+        } catch (Throwable e) {
+            // 保证等待的请求都能结束；取消或超时只与第一个请求自身有关，等待的请求各自重新发出
+            if (chain.call().isCanceled() || e instanceof InterruptedIOException) {
+                flight.complete(null);
+            } else {
+                flight.completeExceptionally(e);
+            }
+            throw e;
+        } finally {
+            inFlightCalls.remove(key, flight);
+        }
+    }
+
+    /**
+     * 合并请求的key，由请求方法、url及全部header的原始值组成<br>
+     * 不能用{@link Headers#toString()}，它会把Authorization、Cookie等header的值替换为"██"，凭证不同的请求会被合并
+     */
+    private static String flightKey(Request request) {
+        Headers headers = request.headers();
+        StringBuilder key = new StringBuilder(128).append(request.method()).append(' ').append(request.url());
+        for (int i = 0; i < headers.size(); i++) {
+            // header的值不能包含换行，按行拼接不会混淆
+            key.append('\n').append(headers.name(i)).append(':').append(headers.value(i));
+        }
+        return key.toString();
+    }
+
+    /**
+     * 获取合并请求的统计
+     *
+     * @return
+     */
+    public HttpSingleFlightStats getStats() {
+        return HttpSingleFlightStats.builder().executedCount(executedCount.sum())
+            .collapsedCount(collapsedCount.sum()).inFlightCount(inFlightCalls.size()).build();
+    }
+
+    /**
+     * 把返回报文读到内存中
+     *
+     * @return 报文超过{@link #maxBodyBytes}时返回null，原报文不会被消费
+     */
+    private BufferedHttpResponse buffer(Response response) throws IOException {
+        ResponseBody body = response.body();
+        long contentLength = body.contentLength();
+        if (contentLength > maxBodyBytes || (contentLength < 0 && body.source().request(maxBodyBytes + 1))) {
+            return null;
+        }
+        return new BufferedHttpResponse(response, body.byteString()); // byteString()读完后会关闭原报文
+    }
+
+    private static BufferedHttpResponse await(Chain chain, CompletableFuture<BufferedHttpResponse> flight)
+        throws IOException {
+        long timeoutNanos = chain.call().timeout().timeoutNanos();
+        try {
+            return timeoutNanos > 0 ? flight.get(timeoutNanos, TimeUnit.NANOSECONDS) : flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待相同请求的结果时被中断");
+        } catch (TimeoutException e) {
+            throw new InterruptedIOException("等待相同请求的结果超时");
+        } catch (ExecutionException e) {
+            // 包装一层，保留当前请求的调用栈
+            throw new IOException("合并的请求失败：" + e.getCause().getMessage(), e.getCause());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import javax.net.ssl.SSLException;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * 复用连接池中的连接时，连接可能已被服务端关闭(会出现"java.io.EOFException: \n not found: size=0 content..."报错)，
+ * 该拦截器对幂等的请求换一个连接重试一次<br>
+ * okhttp自带的retryOnConnectionFailure会连POST等非幂等请求也重新发送，所以客户端不开启，由该拦截器处理<br>
+ * 超时、连接不上、域名解析失败、证书错误等不是失效连接导致的错误不重试
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@Slf4j
+public class HttpStaleConnectionInterceptor implements Interceptor {
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        try {
+            return chain.proceed(request);
+        } catch (IOException e) {
+            if (!HttpResilienceInterceptor.isRetryable(request) || !isStaleConnectionFailure(e)
+                || chain.call().isCanceled()) {
+                throw e;
+            }
+            log.debug("请求{}的连接已失效，换一个连接重试：{}", request.url(), e.getMessage());
+            return chain.proceed(request);
+        }
+    }
+
+    private static boolean isStaleConnectionFailure(IOException e) {
+        return !(e instanceof InterruptedIOException || e instanceof ConnectException
+            || e instanceof NoRouteToHostException || e instanceof UnknownHostException || e instanceof SSLException);
+    }
+}
\ No newline at end of file
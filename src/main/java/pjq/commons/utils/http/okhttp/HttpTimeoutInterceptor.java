@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import pjq.commons.utils.CheckUtils;
+
+/**
+ * 按请求上的{@link HttpCallTimeouts}及{@link HttpDeadline}调整连接、读取、写入超时时间的拦截器<br>
+ * 整个请求的超时时间在创建Call时设置，见{@link OKHttpSenderBase#newCall(okhttp3.OkHttpClient, Request)}；
+ * 该拦截器在{@link HttpResilienceInterceptor}之后，每次重试时都按截止时间剩余的时间重新调整
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public class HttpTimeoutInterceptor implements Interceptor {
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        HttpCallTimeouts timeouts = request.tag(HttpCallTimeouts.class);
+        HttpDeadline deadline = request.tag(HttpDeadline.class);
+        if (CheckUtils.areNull(timeouts, deadline)) {
+            return chain.proceed(request);
+        }
+        if (CheckUtils.isNotNull(deadline) && deadline.isExpired()) {
+            throw new InterruptedIOException("已超过请求的截止时间");
+        }
+
+        Chain timeoutChain = chain;
+        long connectTimeoutMillis = CheckUtils.isNotNull(timeouts) ? timeouts.getConnectTimeoutMillis() : 0;
+        long readTimeoutMillis = CheckUtils.isNotNull(timeouts) ? timeouts.getReadTimeoutMillis() : 0;
+        long writeTimeoutMillis = CheckUtils.isNotNull(timeouts) ? timeouts.getWriteTimeoutMillis() : 0;
+        if (CheckUtils.isNotNull(deadline)) {
+            connectTimeoutMillis = deadline.limit(connectTimeoutMillis > 0 ? connectTimeoutMillis
+                : chain.connectTimeoutMillis());
+            readTimeoutMillis = deadline.limit(readTimeoutMillis > 0 ? readTimeoutMillis : chain.readTimeoutMillis());
+            writeTimeoutMillis = deadline.limit(writeTimeoutMillis > 0 ? writeTimeoutMillis
+                : chain.writeTimeoutMillis());
+        }
+        if (connectTimeoutMillis > 0) {
+            timeoutChain = timeoutChain.withConnectTimeout(toInt(connectTimeoutMillis), TimeUnit.MILLISECONDS);
+        }
+        if (readTimeoutMillis > 0) {
+            timeoutChain = timeoutChain.withReadTimeout(toInt(readTimeoutMillis), TimeUnit.MILLISECONDS);
+        }
+        if (writeTimeoutMillis > 0) {
+            timeoutChain = timeoutChain.withWriteTimeout(toInt(writeTimeoutMillis), TimeUnit.MILLISECONDS);
+        }
+        return timeoutChain.proceed(request);
+    }
+
+    private static int toInt(long millis) {
+        return (int)Math.min(millis, Integer.MAX_VALUE);
+    }
+}
\ No newline at end of file
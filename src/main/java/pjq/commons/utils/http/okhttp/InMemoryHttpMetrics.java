@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.Getter;
+import pjq.commons.utils.CheckUtils;
+
+/**
+ * 在内存中按host统计请求耗时的{@link HttpMetricsCollector}实现，可在代码中查询后导出到其它监控系统<br>
+ * 每个host约占几十KB，统计的host数有上限，超过时淘汰最少使用的host
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public class InMemoryHttpMetrics implements HttpMetricsCollector {
+    private static final int DEFAULT_MAX_HOSTS = 1000;
+
+    private final Cache<String, HostMetrics> hostMetricsCache;
+
+    public InMemoryHttpMetrics() {
+        this(DEFAULT_MAX_HOSTS);
+    }
+
+    /**
+     * @param maxHosts
+     *            最多统计的host数
+     */
+    public InMemoryHttpMetrics(int maxHosts) {
+        CheckUtils.checkNotFalse(maxHosts > 0, "最多统计的host数必须大于0");
+        hostMetricsCache = Caffeine.newBuilder().maximumSize(maxHosts).build();
+    }
+
+    @Override
+    public void onCallEnd(HttpCallTimings timings) {
+        hostMetricsCache.get(timings.getHost(), host -> new HostMetrics()).record(timings);
+    }
+
+    /**
+     * 获取某个host的统计信息
+     *
+     * @param host
+     * @return 没有该host的请求或已被淘汰时返回null
+     */
+    public HostMetrics getHostMetrics(String host) {
+        return hostMetricsCache.getIfPresent(host);
+    }
+
+    /**
+     * 获取全部host的统计信息
+     *
+     * @return
+     */
+    public Map<String, HostMetrics> getAllHostMetrics() {
+        return Collections.unmodifiableMap(hostMetricsCache.asMap());
+    }
+
+    /**
+     * 清空统计信息
+     */
+    public void clear() {
+        hostMetricsCache.invalidateAll();
+    }
+
+    /**
+     * 单个host的统计信息，耗时单位为毫秒
+     */
+    @Getter
+    public static class HostMetrics {
+        private final LatencyHistogram dnsLatency = new LatencyHistogram();
+        private final LatencyHistogram connectLatency = new LatencyHistogram();
+        private final LatencyHistogram tlsLatency = new LatencyHistogram();
+
+        /**
+         * 只统计成功的请求，用于计算对冲请求的等待时间
+         */
+        private final LatencyHistogram timeToFirstByteLatency = new LatencyHistogram();
+        private final LatencyHistogram totalLatency = new LatencyHistogram();
+        private final LongAdder successCount = new LongAdder();
+        private final LongAdder failureCount = new LongAdder();
+
+        private void record(HttpCallTimings timings) {
+            dnsLatency.record(timings.getDnsMillis());
+            connectLatency.record(timings.getConnectMillis());
+            tlsLatency.record(timings.getTlsMillis());
+            totalLatency.record(timings.getTotalMillis());
+            if (timings.isSuccess()) {
+                timeToFirstByteLatency.record(timings.getTimeToFirstByteMillis());
+                successCount.increment();
+            } else {
+                failureCount.increment();
+            }
+        }
+    }
+}
\ No newline at end of file
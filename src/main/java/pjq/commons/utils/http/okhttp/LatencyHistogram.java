@@ -0,0 +1,126 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 耗时直方图(参考HdrHistogram的对数-线性分桶)<br>
+ * 1.每个2的幂次区间再均分为16个桶，统计值的相对误差约为6%<br>
+ * 2.记录时无锁，可在多线程中并发调用<br>
+ * 3.超过{@link #MAX_TRACKABLE_VALUE}的值按最大值统计
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    public static final long MAX_TRACKABLE_VALUE = Integer.MAX_VALUE;
+
+    private final AtomicLongArray counts = new AtomicLongArray(bucketIndex(MAX_TRACKABLE_VALUE) + 1);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalValue = new LongAdder();
+    private final LongAccumulator maxValue = new LongAccumulator(Math::max, 0);
+
+    /**
+     * 记录一个值，小于0的值忽略
+     *
+     * @param value
+     */
+    public void record(long value) {
+        if (value < 0) {
+            return;
+        }
+        long trueValue = Math.min(value, MAX_TRACKABLE_VALUE);
+        counts.incrementAndGet(bucketIndex(trueValue));
+        totalCount.increment();
+        totalValue.add(trueValue);
+        maxValue.accumulate(trueValue);
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public double getMean() {
+        long count = getCount();
+        return count > 0 ? (double)totalValue.sum() / count : 0;
+    }
+
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    /**
+     * 获取百分位对应的值(所在桶的上限)
+     *
+     * @param percentile
+     *            百分位，取值0~100，如99表示p99
+     * @return 没有记录时返回0
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = getCount();
+        if (count <= 0) {
+            return 0;
+        }
+        long targetCount = Math.max(1, (long)Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count));
+        long currentCount = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            currentCount += counts.get(i);
+            if (currentCount >= targetCount) {
+                return Math.min(bucketUpperValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int)value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int)(value >>> shift) - SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long bucketUpperValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        return ((subBucket + SUB_BUCKET_COUNT + 1) << shift) - 1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,372 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Request;
+import pjq.commons.utils.CheckUtils;
+
+/**
+ * 批量发送http请求，可限制总并发数及每个host的并发数<br>
+ * 1.每个请求完成后马上通过{@link BatchResultHandler}返回结果，不需等待全部请求完成<br>
+ * 2.全部请求完成后(有截止时间时最多等到截止时间)返回{@link BatchSummary}汇总吞吐量及耗时<br>
+ * 3.每个host的实际并发数同时受{@link OKHttpClientConfig#getMaxRequestsPerHost()}限制
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@Slf4j
+public class OKHttpBatchExecutor {
+    private final OKHttpSenderBase sender;
+    private final int maxConcurrency;
+    private final int maxConcurrencyPerHost;
+
+    /**
+     * @param sender
+     *            用于发送请求的sender
+     * @param maxConcurrency
+     *            总并发数
+     * @param maxConcurrencyPerHost
+     *            每个host的并发数
+     */
+    public OKHttpBatchExecutor(OKHttpSenderBase sender, int maxConcurrency, int maxConcurrencyPerHost) {
+        CheckUtils.checkNotNull(sender, "sender不能为空");
+        CheckUtils.checkNotTrue(maxConcurrency <= 0 || maxConcurrencyPerHost <= 0, "并发数必须大于0");
+        this.sender = sender;
+        this.maxConcurrency = maxConcurrency;
+        this.maxConcurrencyPerHost = maxConcurrencyPerHost;
+    }
+
+    /**
+     * 批量发送请求，全部请求完成后才返回
+     *
+     * @param requests
+     *            请求列表，可通过{@link OKHttpSenderBase#createHttpGet}、{@link OKHttpSenderBase#createHttpPost}等方法创建
+     * @param resultHandler
+     *            每个请求完成后的处理，会在多个线程中并发调用，可为空
+     * @param responseCharset
+     * @return
+     * @throws InterruptedException
+     */
+    public BatchSummary execute(Collection<Request> requests, BatchResultHandler resultHandler,
+        String... responseCharset) throws InterruptedException {
+        return execute(requests, resultHandler, null, responseCharset);
+    }
+
+    /**
+     * 批量发送请求，全部请求完成后才返回
+     *
+     * @param requests
+     *            请求列表，可通过{@link OKHttpSenderBase#createHttpGet}、{@link OKHttpSenderBase#createHttpPost}等方法创建
+     * @param resultHandler
+     *            每个请求完成后的处理，会在多个线程中并发调用，可为空
+     * @param deadline
+     *            整批请求的截止时间，超过时还没完成的请求(包括已发出的请求，会被取消)以超时失败，可为空
+     * @param responseCharset
+     * @return
+     * @throws InterruptedException
+     */
+    public BatchSummary execute(Collection<Request> requests, BatchResultHandler resultHandler,
+        HttpDeadline deadline, String... responseCharset) throws InterruptedException {
+        CheckUtils.checkNotNull(requests, "请求列表不能为空");
+        long beginTime = System.currentTimeMillis();
+        BatchRun batchRun = new BatchRun(requests, resultHandler, deadline, responseCharset);
+        batchRun.dispatch();
+        if (CheckUtils.isNull(deadline)) {
+            batchRun.latch.await();
+        } else if (!batchRun.latch.await(deadline.remainingMillis(), TimeUnit.MILLISECONDS)) {
+            batchRun.close();
+        }
+
+        BatchSummary summary = batchRun.toSummary(System.currentTimeMillis() - beginTime);
+        if (sender.getLogPolicy().getLevel().isEnabled(HttpLogLevel.SUMMARY) && log.isInfoEnabled()) {
+            log.info("batchSummary=======>{}", summary);
+        }
+        return summary;
+    }
+
+    /**
+     * 一次批量请求的执行状态<br>
+     * 请求按host排队，有请求完成时从还有额度的host中轮流取下一个请求发出，某个host较慢时不会阻塞其它host的请求<br>
+     * 超过截止时间关闭后，迟到的回调不再计入汇总结果，也不再调用{@link BatchResultHandler}
+     */
+    private class BatchRun {
+        private final BatchResultHandler resultHandler;
+        private final HttpDeadline deadline;
+        private final String[] responseCharset;
+        private final int total;
+        private final long[] latencies;
+        private final CountDownLatch latch;
+        private final Map<String, Deque<Request>> pendingRequests = new LinkedHashMap<>(); // 只保留还有请求的host
+        private final Map<String, Integer> runningCountPerHost = new HashMap<>();
+        private final Map<CompletableFuture<HttpResult>, Request> runningCalls = new HashMap<>();
+        private int runningCount;
+        private int completedCount;
+        private int successCount;
+        private boolean isDispatching;
+        private boolean isDispatchRequested;
+        private boolean isClosed;
+
+        private BatchRun(Collection<Request> requests, BatchResultHandler resultHandler, HttpDeadline deadline,
+            String... responseCharset) {
+            this.resultHandler = resultHandler;
+            this.deadline = deadline;
+            this.responseCharset = responseCharset;
+            this.total = requests.size();
+            this.latencies = new long[total];
+            this.latch = new CountDownLatch(total);
+            for (Request request : requests) {
+                pendingRequests.computeIfAbsent(request.url().host(), host -> new ArrayDeque<>()).add(request);
+            }
+        }
+
+        /**
+         * 在总额度及各host额度内发出尽可能多的请求<br>
+         * 请求同步失败时会在当前线程中回调，为避免递归过深，已有线程在发出请求时只做标记，由该线程继续发出
+         */
+        private void dispatch() {
+            synchronized (this) {
+                if (isDispatching) {
+                    isDispatchRequested = true;
+                    return;
+                }
+                isDispatching = true;
+            }
+            while (true) {
+                List<Request> readyRequests = new ArrayList<>();
+                synchronized (this) {
+                    while (!isClosed && runningCount < maxConcurrency) {
+                        Request request = pollReadyRequest();
+                        if (CheckUtils.isNull(request)) {
+                            break;
+                        }
+                        runningCount++;
+                        runningCountPerHost.merge(request.url().host(), 1, Integer::sum);
+                        readyRequests.add(request);
+                    }
+                }
+                readyRequests.forEach(this::send); // 在锁外发出请求
+                synchronized (this) {
+                    if (!isDispatchRequested) {
+                        isDispatching = false;
+                        return;
+                    }
+                    isDispatchRequested = false;
+                }
+            }
+        }
+
+        /**
+         * 从还有额度的host中取一个请求，取出后把该host移到队尾，使各host轮流发出
+         */
+        private Request pollReadyRequest() {
+            Iterator<Map.Entry<String, Deque<Request>>> iterator = pendingRequests.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Deque<Request>> entry = iterator.next();
+                if (runningCountPerHost.getOrDefault(entry.getKey(), 0) >= maxConcurrencyPerHost) {
+                    continue;
+                }
+                Request request = entry.getValue().poll();
+                iterator.remove();
+                if (!entry.getValue().isEmpty()) {
+                    pendingRequests.put(entry.getKey(), entry.getValue());
+                }
+                return request;
+            }
+            return null;
+        }
+
+        private void send(Request request) {
+            long requestBeginTime = System.nanoTime();
+            Request trueRequest = CheckUtils.isNotNull(deadline) ? OKHttpSenderBase.withDeadline(request, deadline)
+                : request;
+            CompletableFuture<HttpResult> future;
+            try {
+                future = sender.httpExecuteAsync(sender.createCommonClient(request.url().toString()), trueRequest, 0,
+                    null, responseCharset);
+            } catch (Exception e) {
+                complete(request, requestBeginTime, null, null, e); // 创建客户端失败等情况
+                return;
+            }
+            synchronized (this) {
+                runningCalls.put(future, request); // 先登记再注册回调，保证回调时能移除
+            }
+            future.whenComplete((result, e) -> complete(request, requestBeginTime, future, result, e));
+        }
+
+        private void complete(Request request, long requestBeginTime, CompletableFuture<HttpResult> future,
+            HttpResult result, Throwable e) {
+            synchronized (this) {
+                if (isClosed) {
+                    // 已超过截止时间，汇总结果已确定，该请求已按超时回调过
+                    if (CheckUtils.isNotNull(result)) {
+                        result.close();
+                    }
+                    return;
+                }
+                if (CheckUtils.isNotNull(future)) {
+                    runningCalls.remove(future);
+                }
+                latencies[completedCount++] = (System.nanoTime() - requestBeginTime) / 1000000;
+                if (CheckUtils.isNull(e) && (result.isSuccess() || result.isRedirect())) {
+                    successCount++; // 非200且不是重定向的结果也算失败
+                }
+                runningCount--;
+                runningCountPerHost.merge(request.url().host(), -1, Integer::sum);
+            }
+            try {
+                handleResult(resultHandler, request, result, e);
+            } finally {
+                latch.countDown();
+                dispatch();
+            }
+        }
+
+        /**
+         * 超过截止时间时关闭本批请求，还没发出的请求及已发出还未完成的请求(会被取消)都以超时失败
+         */
+        private void close() {
+            List<Request> unfinishedRequests = new ArrayList<>();
+            List<CompletableFuture<HttpResult>> runningFutures;
+            synchronized (this) {
+                isClosed = true;
+                pendingRequests.values().forEach(unfinishedRequests::addAll);
+                pendingRequests.clear();
+                unfinishedRequests.addAll(runningCalls.values());
+                runningFutures = new ArrayList<>(runningCalls.keySet());
+                runningCalls.clear();
+            }
+            runningFutures.forEach(future -> future.cancel(true));
+            for (Request request : unfinishedRequests) {
+                handleResult(resultHandler, request, null, new InterruptedIOException("已超过批量请求的截止时间"));
+            }
+        }
+
+        /**
+         * 汇总已完成的请求，超过截止时间仍未完成的请求算作失败
+         */
+        private synchronized BatchSummary toSummary(long elapsedMillis) {
+            return BatchSummary.of(total, successCount, elapsedMillis, Arrays.copyOf(latencies, completedCount));
+        }
+    }
+
+    private static void handleResult(BatchResultHandler resultHandler, Request request, HttpResult result,
+        Throwable e) {
+        if (CheckUtils.isNotNull(resultHandler)) {
+            try {
+                resultHandler.onResult(request, result, e);
+            } catch (Exception handlerException) {
+                log.warn("批量请求结果处理失败", handlerException);
+            }
+        }
+    }
+
+    /**
+     * 批量请求中每个请求的结果处理接口
+     */
+    @FunctionalInterface
+    public interface BatchResultHandler {
+        /**
+         * @param request
+         *            请求对象
+         * @param result
+         *            请求结果，请求失败时为空；状态码非200时也有结果，需自行判断
+         * @param error
+         *            请求失败的异常，请求成功时为空
+         */
+        void onResult(Request request, HttpResult result, Throwable error);
+    }
+
+    /**
+     * 批量请求的汇总信息
+     */
+    @Getter
+    @Builder
+    @ToString
+    public static class BatchSummary {
+        private int total;
+        private int successCount;
+        private int failureCount;
+
+        /**
+         * 总耗时(毫秒)
+         */
+        private long elapsedMillis;
+
+        /**
+         * 吞吐量(每秒请求数)
+         */
+        private double throughput;
+
+        private double avgLatencyMillis;
+        private long minLatencyMillis;
+        private long maxLatencyMillis;
+        private long p50LatencyMillis;
+        private long p99LatencyMillis;
+
+        private static BatchSummary of(int total, int successCount, long elapsedMillis, long[] latencies) {
+            BatchSummaryBuilder builder = BatchSummary.builder().total(total).successCount(successCount)
+                .failureCount(total - successCount).elapsedMillis(elapsedMillis)
+                .throughput(elapsedMillis > 0 ? total * 1000.0 / elapsedMillis : total);
+            if (latencies.length > 0) {
+                Arrays.sort(latencies);
+                builder.avgLatencyMillis(Arrays.stream(latencies).average().orElse(0)).minLatencyMillis(latencies[0])
+                    .maxLatencyMillis(latencies[latencies.length - 1]).p50LatencyMillis(percentile(latencies, 0.5))
+                    .p99LatencyMillis(percentile(latencies, 0.99));
+            }
+            return builder.build();
+        }
+
+        private static long percentile(long[] sortedLatencies, double percentile) {
+            int index = (int)Math.ceil(percentile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))];
+        }
+    }
+}
\ No newline at end of file
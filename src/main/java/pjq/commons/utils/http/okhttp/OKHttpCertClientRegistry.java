@@ -0,0 +1,366 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.io.File;
+import java.security.KeyStore;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLContext;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import pjq.commons.utils.CheckUtils;
+import pjq.commons.utils.DefaultValueGetter;
+import pjq.commons.utils.http.HttpCertFileUtils;
+
+/**
+ * 双向认证(客户端证书)的http客户端注册表<br>
+ * 1.每个证书只在注册及文件变更时加载一次，不在每次请求时重新读取证书文件<br>
+ * 2.每个证书有独立的连接池，dispatcher及其它配置与注册时指定的客户端配置(默认为{@link OKHttpClientConfig#getDefaultConfig()})共用<br>
+ * 3.后台定时检查证书文件，文件变更后按注册时的客户端配置重新加载并替换客户端<br>
+ * 4.只需要SSLContext时可用{@link #getSSLContextByFile}，按证书文件缓存，不创建客户端
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class OKHttpCertClientRegistry {
+    private static final long RELOAD_CHECK_INTERVAL = 30; // 检查证书文件变更的间隔，单位秒
+    private static final int MAX_IDLE_CONNECTIONS = 5; // 每个证书连接池的最大空闲连接数
+
+    private static final ConcurrentMap<String, CertClient> CERT_CLIENTS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, CertSSLContext> CERT_SSL_CONTEXTS = new ConcurrentHashMap<>();
+
+    private static volatile ScheduledExecutorService reloader;
+
+    /**
+     * 注册PKCS12(.pfx文件)证书的客户端
+     *
+     * @param certName
+     *            证书名称，获取客户端时使用
+     * @param cafilepath
+     *            证书文件路径
+     * @param capwd
+     *            证书密码
+     * @param sslProtocol
+     *            默认{@link OKHttpSenderBase#SSL_PROTOCOL_TLS}
+     * @throws Exception
+     */
+    public static void register(String certName, String cafilepath, String capwd, String... sslProtocol)
+        throws Exception {
+        register(certName, cafilepath, capwd, HttpCertFileUtils.KEY_STORE_TYPE_PKCS12,
+            HttpCertFileUtils.KEY_FACTORY_ALGORITHM_SUNX509, sslProtocol);
+    }
+
+    /**
+     * 注册证书的客户端，同名证书已注册时会被替换
+     *
+     * @param certName
+     *            证书名称，获取客户端时使用
+     * @param cafilepath
+     *            证书文件路径
+     * @param capwd
+     *            证书密码
+     * @param keyStoreType
+     *            如{@link HttpCertFileUtils#KEY_STORE_TYPE_PKCS12}
+     * @param keyManagerFactoryAlgorithm
+     *            如{@link HttpCertFileUtils#KEY_FACTORY_ALGORITHM_SUNX509}
+     * @param sslProtocol
+     *            默认{@link OKHttpSenderBase#SSL_PROTOCOL_TLS}
+     * @throws Exception
+     */
+    public static void register(String certName, String cafilepath, String capwd, String keyStoreType,
+        String keyManagerFactoryAlgorithm, String... sslProtocol) throws Exception {
+        register(OKHttpClientConfig.getDefaultConfig(), certName, cafilepath, capwd, keyStoreType,
+            keyManagerFactoryAlgorithm, sslProtocol);
+    }
+
+    /**
+     * 按指定的客户端配置注册证书的客户端，同名证书已注册时会被替换<br>
+     * 证书客户端由该配置的https客户端派生，该配置调用{@link OKHttpClientHolder#shutdown()}后需重新注册
+     *
+     * @param clientConfig
+     *            客户端配置
+     * @param certName
+     *            证书名称，获取客户端时使用
+     * @param cafilepath
+     *            证书文件路径
+     * @param capwd
+     *            证书密码
+     * @param keyStoreType
+     *            如{@link HttpCertFileUtils#KEY_STORE_TYPE_PKCS12}
+     * @param keyManagerFactoryAlgorithm
+     *            如{@link HttpCertFileUtils#KEY_FACTORY_ALGORITHM_SUNX509}
+     * @param sslProtocol
+     *            默认{@link OKHttpSenderBase#SSL_PROTOCOL_TLS}
+     * @throws Exception
+     */
+    public static void register(OKHttpClientConfig clientConfig, String certName, String cafilepath,
+        String capwd, String keyStoreType, String keyManagerFactoryAlgorithm, String... sslProtocol)
+        throws Exception {
+        CheckUtils.checkNotNull(clientConfig, "客户端配置不能为空");
+        CheckUtils.checkNotEmpty(certName, "证书名称不能为空");
+        CheckUtils.checkNotEmpty(cafilepath, "证书文件路径不能为空");
+        CheckUtils.checkNotNull(capwd, "证书密码不能为空");
+        CheckUtils.checkNotTrue(!new File(cafilepath).isFile(), cafilepath + "不存在或不是文件");
+
+        CertClient certClient = new CertClient(OKHttpClientHolder.of(clientConfig), certName, cafilepath, capwd,
+            keyStoreType, keyManagerFactoryAlgorithm, sslProtocol);
+        certClient.load();
+        CertClient oldCertClient = CERT_CLIENTS.put(certName, certClient);
+        if (CheckUtils.isNotNull(oldCertClient)) {
+            oldCertClient.close();
+        }
+        startReloader();
+    }
+
+    /**
+     * 取消注册并关闭该证书连接池中的空闲连接
+     *
+     * @param certName
+     */
+    public static void unregister(String certName) {
+        CertClient certClient = CERT_CLIENTS.remove(certName);
+        if (CheckUtils.isNotNull(certClient)) {
+            certClient.close();
+        }
+    }
+
+    public static boolean isRegistered(String certName) {
+        return CERT_CLIENTS.containsKey(certName);
+    }
+
+    /**
+     * 获取证书对应的客户端
+     *
+     * @param certName
+     * @return
+     */
+    public static OkHttpClient getClient(String certName) {
+        return getCertClient(certName).getClient();
+    }
+
+    /**
+     * 获取证书对应的SSLContext
+     *
+     * @param certName
+     * @return
+     */
+    public static SSLContext getSSLContext(String certName) {
+        return getCertClient(certName).getSslContext();
+    }
+
+    /**
+     * 获取证书文件对应的SSLContext，不需要先注册<br>
+     * 按证书文件路径、类型、算法及协议缓存，只在首次获取、证书文件变更或密码不同时加载证书
+     *
+     * @param cafilepath
+     *            证书文件路径
+     * @param capwd
+     *            证书密码
+     * @param keyStoreType
+     *            如{@link HttpCertFileUtils#KEY_STORE_TYPE_PKCS12}
+     * @param keyManagerFactoryAlgorithm
+     *            如{@link HttpCertFileUtils#KEY_FACTORY_ALGORITHM_SUNX509}
+     * @param sslProtocol
+     *            默认{@link OKHttpSenderBase#SSL_PROTOCOL_TLS}
+     * @return
+     * @throws Exception
+     */
+    public static SSLContext getSSLContextByFile(String cafilepath, String capwd, String keyStoreType,
+        String keyManagerFactoryAlgorithm, String... sslProtocol) throws Exception {
+        CheckUtils.checkNotEmpty(cafilepath, "证书文件路径不能为空");
+        String trueSslProtocol = DefaultValueGetter.getValue(OKHttpSenderBase.SSL_PROTOCOL_TLS, sslProtocol);
+        String cacheKey = cafilepath + '\n' + keyStoreType + '\n' + keyManagerFactoryAlgorithm + '\n' + trueSslProtocol;
+        return CERT_SSL_CONTEXTS.computeIfAbsent(cacheKey,
+            key -> new CertSSLContext(cafilepath, keyStoreType, keyManagerFactoryAlgorithm, trueSslProtocol))
+            .get(capwd);
+    }
+
+    private static SSLContext newSSLContext(String cafilepath, String capwd, String keyStoreType,
+        String keyManagerFactoryAlgorithm, String... sslProtocol) throws Exception {
+        KeyStore keyStore = HttpCertFileUtils.getKeyStore(cafilepath, capwd, keyStoreType);
+        return OKHttpSenderBase.getSSLContext(
+            HttpCertFileUtils.getKeyManagerFactory(keyStore, capwd, keyManagerFactoryAlgorithm).getKeyManagers(),
+            sslProtocol);
+    }
+
+    private static CertClient getCertClient(String certName) {
+        CertClient certClient = CERT_CLIENTS.get(certName);
+        CheckUtils.checkNotNull(certClient, "证书[" + certName + "]未注册");
+        return certClient;
+    }
+
+    /**
+     * 首次注册时启动后台检查证书文件变更的任务
+     */
+    private static void startReloader() {
+        if (CheckUtils.isNull(reloader)) {
+            synchronized (OKHttpCertClientRegistry.class) {
+                if (CheckUtils.isNull(reloader)) {
+                    ScheduledExecutorService newReloader = Executors.newSingleThreadScheduledExecutor(r -> {
+                        Thread thread = new Thread(r, "okhttp-cert-reloader");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    newReloader.scheduleWithFixedDelay(OKHttpCertClientRegistry::reloadChangedCerts,
+                        RELOAD_CHECK_INTERVAL, RELOAD_CHECK_INTERVAL, TimeUnit.SECONDS);
+                    reloader = newReloader;
+                }
+            }
+        }
+    }
+
+    private static void reloadChangedCerts() {
+        CERT_CLIENTS.values().forEach(certClient -> {
+            try {
+                if (certClient.isFileChanged()) {
+                    certClient.load();
+                    log.info("证书[{}]已重新加载", certClient.getCertName());
+                }
+            } catch (Throwable e) {
+                // 加载失败时继续使用原来的客户端
+                log.warn("证书[{}]重新加载失败", certClient.getCertName(), e);
+            }
+        });
+    }
+
+    private static class CertClient {
+        private final OKHttpClientHolder holder;
+        private final @Getter String certName;
+        private final String cafilepath;
+        private final String capwd;
+        private final String keyStoreType;
+        private final String keyManagerFactoryAlgorithm;
+        private final String[] sslProtocol;
+
+        // 注册线程及后台检查线程都会访问，由当前对象的锁保护
+        private long lastModified;
+        private long fileLength;
+        private volatile @Getter SSLContext sslContext;
+        private volatile @Getter OkHttpClient client;
+
+        CertClient(OKHttpClientHolder holder, String certName, String cafilepath, String capwd, String keyStoreType,
+            String keyManagerFactoryAlgorithm, String[] sslProtocol) {
+            this.holder = holder;
+            this.certName = certName;
+            this.cafilepath = cafilepath;
+            this.capwd = capwd;
+            this.keyStoreType = keyStoreType;
+            this.keyManagerFactoryAlgorithm = keyManagerFactoryAlgorithm;
+            this.sslProtocol = sslProtocol;
+        }
+
+        synchronized boolean isFileChanged() {
+            File file = new File(cafilepath);
+            return file.isFile() && (file.lastModified() != lastModified || file.length() != fileLength);
+        }
+
+        synchronized void load() throws Exception {
+            File file = new File(cafilepath);
+            long newLastModified = file.lastModified();
+            long newFileLength = file.length();
+
+            SSLContext newSslContext =
+                newSSLContext(cafilepath, capwd, keyStoreType, keyManagerFactoryAlgorithm, sslProtocol);
+            OkHttpClient newClient = holder.newHttpsClientBuilder(newSslContext)
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS,
+                    holder.getConfig().getKeepAliveDurationMillis(), TimeUnit.MILLISECONDS))
+                .build();
+
+            OkHttpClient oldClient = client;
+            sslContext = newSslContext;
+            client = newClient;
+            lastModified = newLastModified;
+            fileLength = newFileLength;
+            if (CheckUtils.isNotNull(oldClient)) {
+                // 旧证书的连接不会再被复用，正在进行的请求不受影响
+                oldClient.connectionPool().evictAll();
+            }
+        }
+
+        void close() {
+            OkHttpClient oldClient = client;
+            if (CheckUtils.isNotNull(oldClient)) {
+                oldClient.connectionPool().evictAll();
+            }
+        }
+    }
+
+    /**
+     * 按证书文件缓存的SSLContext，获取时检查文件是否变更(只读取文件属性)
+     */
+    private static class CertSSLContext {
+        private final String cafilepath;
+        private final String keyStoreType;
+        private final String keyManagerFactoryAlgorithm;
+        private final String sslProtocol;
+
+        // 由当前对象的锁保护
+        private String capwd;
+        private long lastModified;
+        private long fileLength;
+        private SSLContext sslContext;
+
+        CertSSLContext(String cafilepath, String keyStoreType, String keyManagerFactoryAlgorithm,
+            String sslProtocol) {
+            this.cafilepath = cafilepath;
+            this.keyStoreType = keyStoreType;
+            this.keyManagerFactoryAlgorithm = keyManagerFactoryAlgorithm;
+            this.sslProtocol = sslProtocol;
+        }
+
+        synchronized SSLContext get(String newCapwd) throws Exception {
+            File file = new File(cafilepath);
+            long newLastModified = file.lastModified();
+            long newFileLength = file.length();
+            if (CheckUtils.isNull(sslContext) || !Objects.equals(capwd, newCapwd) || newLastModified != lastModified
+                || newFileLength != fileLength) {
+                sslContext = newSSLContext(cafilepath, newCapwd, keyStoreType, keyManagerFactoryAlgorithm, sslProtocol);
+                capwd = newCapwd;
+                lastModified = newLastModified;
+                fileLength = newFileLength;
+            }
+            return sslContext;
+        }
+    }
+}
\ No newline at end of file
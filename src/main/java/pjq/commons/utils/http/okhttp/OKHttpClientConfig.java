@@ -0,0 +1,291 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.X509TrustManager;
+
+import lombok.Builder;
+import lombok.Getter;
+import okhttp3.Dispatcher;
+import okhttp3.Dns;
+import okhttp3.Interceptor;
+import pjq.commons.utils.CheckUtils;
+
+/**
+ * OKHttp客户端的配置<br>
+ * 默认配置需在首次发送请求前通过{@link #setDefaultConfig(OKHttpClientConfig)}设置，客户端创建后再修改不会生效；
+ * 需要与默认客户端隔离(独立的连接池、dispatcher、超时时间等)时，用{@link OKHttpSender#create(OKHttpClientConfig)}、
+ * {@link OKHttpSender4Async#create(OKHttpClientConfig)}创建使用该配置的sender，同一个配置对象创建的sender共用一组客户端，
+ * 该配置不再使用时需调用{@link OKHttpSenderBase#shutdown()}释放客户端
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@Getter
+@Builder(toBuilder = true)
+public class OKHttpClientConfig {
+    private static volatile OKHttpClientConfig defaultConfig = OKHttpClientConfig.builder().build();
+
+    /**
+     * 连接超时时间(毫秒)，默认60秒
+     */
+    @Builder.Default
+    private long connectTimeoutMillis = 60000;
+
+    /**
+     * 读取超时时间(毫秒)，默认120秒
+     */
+    @Builder.Default
+    private long readTimeoutMillis = 120000;
+
+    /**
+     * 写入超时时间(毫秒)，默认120秒
+     */
+    @Builder.Default
+    private long writeTimeoutMillis = 120000;
+
+    /**
+     * 使用的http协议，默认{@link HttpProtocolMode#AUTO}(https通过ALPN协商HTTP/2)
+     */
+    @Builder.Default
+    private HttpProtocolMode protocolMode = HttpProtocolMode.AUTO;
+
+    /**
+     * 域名解析，为空时使用系统解析；需要缓存解析结果时可使用{@link HttpCachingDns}
+     */
+    private Dns dns;
+
+    /**
+     * https客户端使用的SSLContext，为空时使用信任所有证书的TLS上下文(与原来一致)
+     */
+    private SSLContext sslContext;
+
+    /**
+     * https客户端的证书校验，为空时信任所有证书(与原来一致)
+     */
+    private X509TrustManager trustManager;
+
+    /**
+     * https客户端的主机名校验，为空时不校验(与原来一致)
+     */
+    private HostnameVerifier hostnameVerifier;
+
+    /**
+     * 额外的应用拦截器，在内置的超时、缓存、重试等拦截器之后执行
+     */
+    @Builder.Default
+    private List<Interceptor> interceptors = Collections.emptyList();
+
+    /**
+     * 额外的网络拦截器
+     */
+    @Builder.Default
+    private List<Interceptor> networkInterceptors = Collections.emptyList();
+
+    /**
+     * 是否使用连接池复用长连接，默认true<br>
+     * 为false时每个请求都带上"Connection: close"，即每次请求都重新建立连接
+     */
+    @Builder.Default
+    private boolean keepAlive = true;
+
+    /**
+     * 连接池中最大的空闲连接数，默认20
+     */
+    @Builder.Default
+    private int maxIdleConnections = 20;
+
+    /**
+     * 空闲连接的保活时间(毫秒)，默认15秒<br>
+     * 应小于服务端的keep-alive超时时间(如tomcat默认20秒、nginx默认75秒)，避免复用已被服务端关闭的连接
+     */
+    @Builder.Default
+    private long keepAliveDurationMillis = 15000;
+
+    /**
+     * 同时进行的最大异步请求数，默认64，超过的请求在dispatcher中排队
+     */
+    @Builder.Default
+    private int maxRequests = 64;
+
+    /**
+     * 每个host同时进行的最大异步请求数，默认5
+     */
+    @Builder.Default
+    private int maxRequestsPerHost = 5;
+
+    /**
+     * 异步请求({@link OKHttpSender4Async}及{@link OKHttpSenderBase#httpExecuteAsync}等返回CompletableFuture的方法)
+     * 提交队列的容量，小于等于0时不限制(默认，请求直接进入okhttp的无界队列)<br>
+     * 大于0时交给okhttp执行的请求数不超过{@link #maxRequests}，其余请求在该队列中等待，队列满时按{@link #asyncQueueFullPolicy}处理
+     */
+    @Builder.Default
+    private int asyncQueueCapacity = 0;
+
+    /**
+     * 异步请求提交队列满时的处理方式，默认{@link HttpQueueFullPolicy#BLOCK}
+     */
+    @Builder.Default
+    private HttpQueueFullPolicy asyncQueueFullPolicy = HttpQueueFullPolicy.BLOCK;
+
+    /**
+     * dispatcher执行异步请求(包括回调)的线程池，为空时按{@link #virtualThreads}使用共用的线程池<br>
+     * 由调用方管理该线程池的生命周期
+     */
+    private ExecutorService dispatcherExecutor;
+
+    /**
+     * 没有指定{@link #dispatcherExecutor}时，是否使用虚拟线程执行异步请求，默认false<br>
+     * 只在JDK21+生效，低版本时使用okhttp默认的线程池；使用虚拟线程时可把{@link #maxRequests}、{@link #maxRequestsPerHost}调大，
+     * 大量并发请求也不需要对应数量的平台线程
+     */
+    @Builder.Default
+    private boolean virtualThreads = false;
+
+    /**
+     * 返回字符串报文的方法最多读到内存中的字节数，默认64M，小于等于0时不限制<br>
+     * 超过时抛出异常，大报文应使用{@link OKHttpSenderBase#httpExecuteStream}等流式处理的方法
+     */
+    @Builder.Default
+    private long maxBufferedBodySize = 64 * 1024 * 1024;
+
+    /**
+     * MultiPart表单中单个文件部分的最大字节数，小于等于0时不限制(默认)
+     */
+    @Builder.Default
+    private long maxMultipartPartSize = 0;
+
+    /**
+     * 请求及返回报文的日志策略
+     */
+    @Builder.Default
+    private HttpLogPolicy logPolicy = HttpLogPolicy.builder().build();
+
+    /**
+     * 请求指标的收集器，为空时不收集(默认)，可配置为{@link InMemoryHttpMetrics}或对接其它监控系统的实现<br>
+     * 对冲请求按历史耗时计算等待时间时需配置为{@link InMemoryHttpMetrics}，否则使用最小等待时间
+     */
+    private HttpMetricsCollector metricsCollector;
+
+    /**
+     * 默认的容错策略(重试、对冲请求、熔断)，为空时不启用
+     */
+    private HttpResiliencePolicy resiliencePolicy;
+
+    /**
+     * 按host配置的容错策略，优先于{@link #resiliencePolicy}
+     */
+    @Builder.Default
+    private Map<String, HttpResiliencePolicy> hostResiliencePolicies = Collections.emptyMap();
+
+    /**
+     * 请求报文的gzip压缩策略，为空时不压缩
+     */
+    private HttpCompressionPolicy compressionPolicy;
+
+    /**
+     * GET请求返回报文的缓存策略，为空时不缓存
+     */
+    private HttpResponseCachePolicy responseCachePolicy;
+
+    /**
+     * 是否合并相同的并发GET/HEAD请求(只发出一个请求，其它请求共用它的返回报文)，默认false<br>
+     * 只合并返回报文本来就要完整读到内存中的请求(如{@link OKHttpSenderBase#httpExecute}返回字符串的方法)，流式处理的请求不合并
+     */
+    @Builder.Default
+    private boolean singleFlight = false;
+
+    /**
+     * 合并请求时可共用的返回报文最大字节数，默认1MB，超过时等待的请求再各自发出
+     */
+    @Builder.Default
+    private long singleFlightMaxBodySize = 1024 * 1024;
+
+    /**
+     * 按配置创建dispatcher
+     *
+     * @return
+     */
+    public Dispatcher newDispatcher() {
+        Dispatcher dispatcher;
+        if (CheckUtils.isNotNull(dispatcherExecutor)) {
+            dispatcher = new Dispatcher(dispatcherExecutor);
+        } else if (virtualThreads) {
+            dispatcher = new Dispatcher(HttpDispatcherExecutors.sharedVirtualThreadPerTaskExecutor());
+        } else {
+            dispatcher = new Dispatcher(HttpDispatcherExecutors.sharedPlatformThreadExecutor());
+        }
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+        return dispatcher;
+    }
+
+    /**
+     * 获取host对应的容错策略
+     *
+     * @param host
+     * @return 没有配置时返回null
+     */
+    public HttpResiliencePolicy getResiliencePolicy(String host) {
+        HttpResiliencePolicy hostPolicy = hostResiliencePolicies.get(host);
+        return CheckUtils.isNotNull(hostPolicy) ? hostPolicy : resiliencePolicy;
+    }
+
+    /**
+     * 是否配置了容错策略
+     *
+     * @return
+     */
+    public boolean hasResiliencePolicy() {
+        return CheckUtils.isNotNull(resiliencePolicy) || CheckUtils.isNotEmpty(hostResiliencePolicies);
+    }
+
+    public static OKHttpClientConfig getDefaultConfig() {
+        return defaultConfig;
+    }
+
+    /**
+     * 设置默认配置，需在首次发送请求前调用
+     *
+     * @param config
+     */
+    public static void setDefaultConfig(OKHttpClientConfig config) {
+        CheckUtils.checkNotNull(config, "客户端配置不能为空");
+        defaultConfig = config;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,295 @@
+/*
+ * Copyright © 2024 pengjianqiang
+ * All rights reserved.
+ * 项目名称：pjq-commons-utils
+ * 项目描述：个人整理的工具类
+ * 项目地址：https://github.com/qqxadyy/pjq-commons-utils
+ * 许可证信息：见下文
+ *
+ * ======================================================================
+ *
+ * The MIT License
+ * Copyright © 2024 pengjianqiang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package pjq.commons.utils.http.okhttp;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.OkHttpClient.Builder;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import pjq.commons.utils.CheckUtils;
+import pjq.commons.utils.DefaultValueGetter;
+
+/**
+ * 按{@link OKHttpClientConfig}创建的一组okhttp客户端<br>
+ * 同一个配置对象只创建一次，用它创建的sender共用这组客户端；不同配置的客户端各自有连接池、dispatcher及拦截器，互不影响，
+ * 但dispatcher默认共用同一个线程池(并发数由各自的dispatcher限制，共用线程池不会互相占用额度)<br>
+ * 客户端创建后一直保留到调用{@link #shutdown()}，按租户等动态创建的配置不再使用时必须调用{@link #shutdown()}，否则连接池等资源不会释放
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+@Slf4j
+@Getter
+public final class OKHttpClientHolder {
+    private static final int MAX_DERIVED_HTTPS_CLIENTS = 32; // 最多缓存的派生https客户端数
+
+    /**
+     * 按配置对象缓存(配置类没有重写equals，按对象本身区分)，调用{@link #shutdown()}时移除
+     */
+    private static final ConcurrentMap<OKHttpClientConfig, OKHttpClientHolder> HOLDERS = new ConcurrentHashMap<>();
+
+    private final OKHttpClientConfig config;
+    private final OkHttpClient httpClient;
+    @Getter(AccessLevel.NONE)
+    private final OkHttpClient httpsClient;
+    private final HttpResilienceInterceptor resilienceInterceptor;
+    private final HttpCacheInterceptor cacheInterceptor;
+    private final HttpSingleFlightInterceptor singleFlightInterceptor;
+
+    /**
+     * 异步请求的提交队列，没有配置容量时为null
+     */
+    private final HttpAsyncCallQueue asyncCallQueue;
+
+    /**
+     * 按协议、证书等信息缓存的派生https客户端
+     */
+    @Getter(AccessLevel.NONE)
+    private final Cache<String, OkHttpClient> derivedHttpsClients =
+        Caffeine.newBuilder().maximumSize(MAX_DERIVED_HTTPS_CLIENTS).build();
+
+    private static class DefaultHolder {
+        private static final OKHttpClientHolder INSTANCE = of(OKHttpClientConfig.getDefaultConfig());
+    }
+
+    /**
+     * 默认配置的客户端，首次调用时按{@link OKHttpClientConfig#getDefaultConfig()}创建
+     *
+     * @return
+     */
+    public static OKHttpClientHolder getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * 获取某个配置对应的客户端，同一个配置对象只创建一次
+     *
+     * @param config
+     * @return
+     */
+    public static OKHttpClientHolder of(OKHttpClientConfig config) {
+        CheckUtils.checkNotNull(config, "客户端配置不能为空");
+        return HOLDERS.computeIfAbsent(config, OKHttpClientHolder::new);
+    }
+
+    private OKHttpClientHolder(OKHttpClientConfig config) {
+        this.config = config;
+        this.asyncCallQueue = config.getAsyncQueueCapacity() > 0 ? new HttpAsyncCallQueue(
+            config.getAsyncQueueCapacity(), config.getMaxRequests(), config.getAsyncQueueFullPolicy()) : null;
+        try {
+            // callTimeout是整个网络过程的超时时间，一般不用，用具体的timeout设置
+            Builder builder = new Builder().connectTimeout(Duration.ofMillis(config.getConnectTimeoutMillis()))
+                .writeTimeout(Duration.ofMillis(config.getWriteTimeoutMillis()))
+                .readTimeout(Duration.ofMillis(config.getReadTimeoutMillis())).followRedirects(false)
+                .protocols(config.getProtocolMode().httpProtocols())
+                .dispatcher(config.newDispatcher()).connectionPool(new ConnectionPool(config.getMaxIdleConnections(),
+                    config.getKeepAliveDurationMillis(), TimeUnit.MILLISECONDS));
+            if (CheckUtils.isNotNull(config.getDns())) {
+                builder.dns(config.getDns());
+            }
+            // 没有配置统计时也需要记录耗时，供HttpResult读取
+            builder.eventListenerFactory(HttpMetricsEventListener.factory(config.getMetricsCollector()));
+            if (CheckUtils.isNotNull(config.getCompressionPolicy())) {
+                builder.addInterceptor(new HttpCompressionInterceptor(config.getCompressionPolicy()));
+            }
+            HttpResponseCachePolicy cachePolicy = config.getResponseCachePolicy();
+            if (CheckUtils.isNotNull(cachePolicy)) {
+                // 内存缓存在重试等拦截器之前，命中时不需要再走后面的流程；磁盘缓存由okhttp在应用拦截器之后处理
+                okhttp3.Cache diskCache = CheckUtils.isNotNull(cachePolicy.getDiskCacheDir())
+                    ? new okhttp3.Cache(cachePolicy.getDiskCacheDir(), cachePolicy.getMaxDiskBytes()) : null;
+                builder.cache(diskCache);
+                cacheInterceptor = new HttpCacheInterceptor(cachePolicy, diskCache);
+                builder.addInterceptor(cacheInterceptor);
+            } else {
+                cacheInterceptor = null;
+            }
+            if (config.isSingleFlight()) {
+                // 在缓存之后(命中缓存的请求不需要合并)，在重试之前(合并后的请求共用一次重试流程)
+                singleFlightInterceptor = new HttpSingleFlightInterceptor(config.getSingleFlightMaxBodySize());
+                builder.addInterceptor(singleFlightInterceptor);
+            } else {
+                singleFlightInterceptor = null;
+            }
+            if (config.hasResiliencePolicy()) {
+                resilienceInterceptor = new HttpResilienceInterceptor(config);
+                builder.addInterceptor(resilienceInterceptor);
+            } else {
+                resilienceInterceptor = null;
+            }
+            // 需在重试拦截器之后，每次重试都按截止时间剩余的时间重新计算超时时间
+            builder.addInterceptor(new HttpTimeoutInterceptor());
+            for (Interceptor interceptor : config.getInterceptors()) {
+                builder.addInterceptor(interceptor);
+            }
+            for (Interceptor interceptor : config.getNetworkInterceptors()) {
+                builder.addNetworkInterceptor(interceptor);
+            }
+            // okhttp的自动重试会重新发送POST等非幂等请求，所以不开启
+            builder.retryOnConnectionFailure(false);
+            if (config.isKeepAlive()) {
+                // 复用池中的连接时，连接可能已被服务端关闭，幂等请求换一个连接重试一次(在最内层，只重试网络部分)；
+                // 保活时间小于服务端的超时时间，也能减少拿到失效连接的情况
+                builder.addInterceptor(new HttpStaleConnectionInterceptor());
+            } else {
+                builder.addNetworkInterceptor(chain -> {
+                    // HTTP/2不允许Connection头，且多路复用的连接不能由单个请求关闭
+                    Protocol protocol = chain.connection().protocol();
+                    if (Protocol.HTTP_2 == protocol || Protocol.H2_PRIOR_KNOWLEDGE == protocol) {
+                        return chain.proceed(chain.request());
+                    }
+                    // 处理可能出现的"java.io.EOFException: \n not found: size=0 content..."报错
+                    Request request = chain.request().newBuilder().addHeader("Connection", "close").build();
+                    return chain.proceed(request);
+                });
+            }
+            httpClient = builder.build();
+
+            SSLContext sslContext = CheckUtils.isNotNull(config.getSslContext()) ? config.getSslContext()
+                : OKHttpSenderBase.getSSLContext();
+            httpsClient = httpClient.newBuilder().protocols(config.getProtocolMode().httpsProtocols())
+                .sslSocketFactory(sslContext.getSocketFactory(), getTrustManager())
+                .hostnameVerifier(getHostnameVerifier()).build();
+        } catch (Exception e) {
+            throw new RuntimeException("创建http客户端失败", e);
+        }
+    }
+
+    /**
+     * 获取https客户端
+     *
+     * @param sslProtocol
+     *            不传时为TLS，即配置的https客户端，其它协议的客户端由配置的客户端派生(同样使用配置的证书校验)
+     * @return
+     */
+    public OkHttpClient getHttpsClient(String... sslProtocol) {
+        String trueSslProtocol = DefaultValueGetter.getValue(OKHttpSenderBase.SSL_PROTOCOL_TLS, sslProtocol);
+        if (OKHttpSenderBase.SSL_PROTOCOL_TLS.equals(trueSslProtocol)) {
+            return httpsClient;
+        } else {
+            return getDerivedHttpsClient("protocol:" + trueSslProtocol, () -> newSSLContext(trueSslProtocol));
+        }
+    }
+
+    /**
+     * 创建指定协议的SSLContext，使用配置的证书校验<br>
+     * 配置了{@link OKHttpClientConfig#getSslContext()}时无法按协议重建(其中的客户端证书等取不出来)，直接使用配置的SSLContext
+     *
+     * @param sslProtocol
+     * @return
+     * @throws Exception
+     */
+    private SSLContext newSSLContext(String sslProtocol) throws Exception {
+        if (CheckUtils.isNotNull(config.getSslContext())) {
+            return config.getSslContext();
+        }
+        SSLContext sslContext = SSLContext.getInstance(sslProtocol);
+        sslContext.init(null, new TrustManager[] {getTrustManager()}, new SecureRandom());
+        return sslContext;
+    }
+
+    /**
+     * 获取由https客户端派生的客户端，按cacheKey缓存<br>
+     * 派生的客户端共用连接池和dispatcher，且同一个SSLContext的TLS会话可以在多次请求间复用
+     *
+     * @param cacheKey
+     *            缓存key，需包含协议及证书等能区分SSLContext的信息
+     * @param sslContextGetter
+     *            缓存中不存在时用于创建SSLContext
+     * @return
+     */
+    public OkHttpClient getDerivedHttpsClient(String cacheKey, Callable<SSLContext> sslContextGetter) {
+        return derivedHttpsClients.get(cacheKey, key -> {
+            try {
+                return newHttpsClientBuilder(sslContextGetter.call()).build();
+            } catch (Exception e) {
+                throw new RuntimeException("创建https客户端失败", e);
+            }
+        });
+    }
+
+    /**
+     * 基于https客户端创建使用指定SSLContext的builder(默认共用连接池和dispatcher)
+     *
+     * @param sslContext
+     * @return
+     */
+    public Builder newHttpsClientBuilder(SSLContext sslContext) {
+        return httpsClient.newBuilder().sslSocketFactory(sslContext.getSocketFactory(), getTrustManager());
+    }
+
+    /**
+     * 关闭客户端：取消所有请求并关闭连接池中的连接(共用的dispatcher线程池不会关闭)<br>
+     * 关闭后不要再使用该配置发送请求
+     */
+    public void shutdown() {
+        httpClient.dispatcher().cancelAll();
+        httpClient.connectionPool().evictAll();
+        derivedHttpsClients.invalidateAll();
+        if (CheckUtils.isNotNull(httpClient.cache())) {
+            try {
+                httpClient.cache().close();
+            } catch (Exception e) {
+                log.warn("关闭磁盘缓存失败", e);
+            }
+        }
+        HOLDERS.remove(config, this);
+    }
+
+    private X509TrustManager getTrustManager() {
+        return CheckUtils.isNotNull(config.getTrustManager()) ? config.getTrustManager()
+            : new OKHttpSenderBase.AnyTrustManager();
+    }
+
+    private HostnameVerifier getHostnameVerifier() {
+        return CheckUtils.isNotNull(config.getHostnameVerifier()) ? config.getHostnameVerifier()
+            : new OKHttpSenderBase.AnyHostnameVerifier();
+    }
+}
\ No newline at end of file
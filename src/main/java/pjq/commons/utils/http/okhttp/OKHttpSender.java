@@ -45,7 +45,27 @@ public final class OKHttpSender extends OKHttpSenderBase {
         private static OKHttpSender INSTANCE = new OKHttpSender();
     }
 
+    private OKHttpSender(OKHttpClientConfig config) {
+        super(config);
+    }
+
+    /**
+     * 使用默认配置的sender
+     * 
+     * @return
+     */
     public static OKHttpSender getInstance() {
         return InstanceHolder.INSTANCE;
     }
+
+    /**
+     * 创建使用独立配置的sender(独立的连接池、dispatcher、超时时间、TLS设置及拦截器)<br>
+     * 同一个配置对象创建的sender共用一组客户端，不同的配置对象互不影响，可用于隔离不同SLA的合作方
+     * 
+     * @param config
+     * @return
+     */
+    public static OKHttpSender create(OKHttpClientConfig config) {
+        return new OKHttpSender(config);
+    }
 }
\ No newline at end of file
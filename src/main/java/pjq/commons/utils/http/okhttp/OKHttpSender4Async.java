@@ -33,13 +33,15 @@ package pjq.commons.utils.http.okhttp;
 
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import pjq.commons.utils.CharsetUtils;
-import pjq.commons.utils.DefaultValueGetter;
+import pjq.commons.utils.CheckUtils;
 
 /**
- * 异步方式发送请求
+ * 异步方式发送请求<br>
+ * 需要组合、超时或取消请求时，使用{@link OKHttpSenderBase#httpExecuteAsync}等返回{@link java.util.concurrent.CompletableFuture}的方法
  * 
  * @author pengjianqiang
  * @date 2021年1月18日
@@ -53,10 +55,37 @@ public final class OKHttpSender4Async extends OKHttpSenderBase {
         private static OKHttpSender4Async INSTANCE = new OKHttpSender4Async();
     }
 
+    private OKHttpSender4Async(OKHttpClientConfig config, SimpleAsyncCallback callback) {
+        super(config);
+        this.callback = callback;
+    }
+
     public static OKHttpSender4Async getInstance() {
         return InstanceHolder.INSTANCE;
     }
 
+    /**
+     * 创建使用独立配置的sender，同一个配置对象创建的sender共用一组客户端
+     * 
+     * @param config
+     * @return
+     * @see OKHttpSender#create(OKHttpClientConfig)
+     */
+    public static OKHttpSender4Async create(OKHttpClientConfig config) {
+        return new OKHttpSender4Async(config, null);
+    }
+
+    /**
+     * 创建使用独立配置的sender，并定义异步请求后的业务处理方法
+     * 
+     * @param config
+     * @param callback
+     * @return
+     */
+    public static OKHttpSender4Async create(OKHttpClientConfig config, SimpleAsyncCallback callback) {
+        return new OKHttpSender4Async(config, callback);
+    }
+
     /**
      * 需要定义异步请求后的业务处理方法
      * 
@@ -69,8 +98,26 @@ public final class OKHttpSender4Async extends OKHttpSenderBase {
 
     @Override
     public String httpExecute(OkHttpClient client, Request request, String... responseCharset) throws Exception {
-        client.newCall(request).enqueue(new DefaultOkHttpAsyncCallback(this, System.currentTimeMillis(), callback,
-            DefaultValueGetter.getValue(CharsetUtils.UTF_8, responseCharset)));
+        // 不指定字符集时按返回的Content-Type解码
+        Call call = newCall(client, request);
+        Callback asyncCallback = new DefaultOkHttpAsyncCallback(this, System.currentTimeMillis(), callback,
+            CheckUtils.isEmpty(responseCharset) ? null : responseCharset[0]);
+        HttpAsyncCallQueue asyncCallQueue = getClientHolder().getAsyncCallQueue();
+        if (CheckUtils.isNotNull(asyncCallQueue)) {
+            asyncCallQueue.submit(call, asyncCallback);
+        } else {
+            call.enqueue(asyncCallback);
+        }
         return "已发送异步请求";
     }
+
+    /**
+     * 获取异步请求提交队列的统计
+     * 
+     * @return 没有配置{@link OKHttpClientConfig#getAsyncQueueCapacity()}时返回null
+     */
+    public HttpAsyncQueueStats getAsyncQueueStats() {
+        HttpAsyncCallQueue asyncCallQueue = getClientHolder().getAsyncCallQueue();
+        return CheckUtils.isNotNull(asyncCallQueue) ? asyncCallQueue.getStats() : null;
+    }
 }
\ No newline at end of file
@@ -32,25 +32,38 @@
 package pjq.commons.utils.http.okhttp;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.InputStream;
-import java.net.URLEncoder;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
-import java.time.Duration;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.KeyManager;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLSession;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 
-import org.apache.tika.Tika;
 import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONReader;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -58,21 +71,27 @@ import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.Call;
 import okhttp3.Callback;
+import okhttp3.Dns;
 import okhttp3.FormBody;
+import okhttp3.MediaType;
 import okhttp3.MultipartBody;
 import okhttp3.OkHttpClient;
-import okhttp3.OkHttpClient.Builder;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.Okio;
+import okio.Sink;
 import pjq.commons.constant.HttpStatus;
 import pjq.commons.utils.CharsetUtils;
 import pjq.commons.utils.CheckUtils;
 import pjq.commons.utils.DefaultValueGetter;
-import pjq.commons.utils.collection.CollectionUtils;
-import pjq.commons.utils.collection.CollectionUtils.Continue;
-import pjq.commons.utils.http.HttpCertFileUtils;
 import pjq.commons.utils.http.HttpException;
+import pjq.commons.utils.http.HttpQueryParams;
+import pjq.commons.utils.http.okhttp.InMemoryHttpMetrics.HostMetrics;
 
 /**
  * OKHttp3工具类(暂时只提供一般常用的请求方式，根据实际用到的情况做扩展)
@@ -83,72 +102,89 @@ import pjq.commons.utils.http.HttpException;
 @Slf4j
 @NoArgsConstructor
 public abstract class OKHttpSenderBase {
-    private static final int READ_TIMEOUT = 120000; // 传输超时时间，默认120秒
-    private static final int CONNECTION_TIMEOUT = 60000; // 连接超时时间，默认60秒
     private static final String HEADER_CONTENT_TYPE = "Content-Type";
     private static final String HEADER_REDIRECT_URL = "location";
+    private static final String HEADER_RANGE = "Range";
+    private static final String HEADER_IF_RANGE = "If-Range";
+    private static final String HEADER_CONTENT_RANGE = "Content-Range";
+    private static final String HEADER_ETAG = "ETag";
+    private static final String HEADER_LAST_MODIFIED = "Last-Modified";
+    private static final String DOWNLOAD_TEMP_FILE_SUFFIX = ".download"; // 下载中的临时文件后缀
+    private static final String DOWNLOAD_VALIDATOR_FILE_SUFFIX = ".validator"; // 断点续传时保存ETag等校验值的文件后缀
+    private static final long DOWNLOAD_SEGMENT_SIZE = 8192; // 有进度回调时每次读取的字节数
     public static final String SSL_PROTOCOL_TLS = "TLS"; // 默认
     public static final String SSL_PROTOCOL_SSL = "SSL";
+    private static final int DECODE_BUFFER_SIZE = 4096; // 解码返回报文时的字符缓冲大小
 
     public enum ParamDataType {
         XML, JSON, RAW, KEY_VALUE_STR, KEY_VALUE_MAP;
     }
 
-    private static class InstanceHolder {
-        private static OkHttpClient HTTP_INSTANCE;
-        private static OkHttpClient HTTPS_INSTANCE;
+    /**
+     * 使用的客户端，为空时使用默认配置的客户端
+     */
+    private OKHttpClientHolder clientHolder;
 
-        static {
-            try {
-                // callTimeout是整个网络过程的超时时间，一般不用，用具体的timeout设置
-                // 不重试，避免链接本身就是不通时浪费资源
-                HTTP_INSTANCE = new Builder().connectTimeout(Duration.ofMillis(CONNECTION_TIMEOUT))
-                    .writeTimeout(Duration.ofMillis(READ_TIMEOUT)).readTimeout(Duration.ofMillis(READ_TIMEOUT))
-                    .retryOnConnectionFailure(false).followRedirects(false).addNetworkInterceptor(chain -> {
-                        // 处理可能出现的"java.io.EOFException: \n not found: size=0 content..."报错
-                        Request request = chain.request().newBuilder().addHeader("Connection", "close").build();
-                        return chain.proceed(request);
-                    }).build();
-
-                HTTPS_INSTANCE = HTTP_INSTANCE.newBuilder()
-                    .sslSocketFactory(getSSLContext().getSocketFactory(), new AnyTrustManager())
-                    .hostnameVerifier(new AnyHostnameVerifier()).build();
-            } catch (Exception e) {
-                throw new RuntimeException();
-            }
-        }
+    /**
+     * 使用独立配置的客户端
+     * 
+     * @param config
+     *            同一个配置对象创建的sender共用一组客户端
+     */
+    protected OKHttpSenderBase(OKHttpClientConfig config) {
+        this.clientHolder = OKHttpClientHolder.of(config);
     }
 
-    private static OkHttpClient getClient() {
-        return InstanceHolder.HTTP_INSTANCE;
+    /**
+     * 当前sender使用的客户端，默认配置的客户端在首次使用时才创建
+     * 
+     * @return
+     */
+    protected OKHttpClientHolder getClientHolder() {
+        return CheckUtils.isNotNull(clientHolder) ? clientHolder : OKHttpClientHolder.getDefault();
     }
 
-    private static OkHttpClient getHttpsClient(String... sslProtocol) {
-        if (CheckUtils.isEmpty(sslProtocol)) {
-            return InstanceHolder.HTTPS_INSTANCE;
-        } else {
-            try {
-                return InstanceHolder.HTTPS_INSTANCE.newBuilder()
-                    .sslSocketFactory(getSSLContext(sslProtocol).getSocketFactory(), new AnyTrustManager()).build();
-            } catch (Exception e) {
-                throw new RuntimeException();
-            }
-        }
+    private OkHttpClient getClient() {
+        return getClientHolder().getHttpClient();
+    }
+
+    private OkHttpClient getHttpsClient(String... sslProtocol) {
+        return getClientHolder().getHttpsClient(sslProtocol);
+    }
+
+    /**
+     * 获取由当前https客户端派生的客户端，按cacheKey缓存<br>
+     * 派生的客户端共用连接池和dispatcher，且同一个SSLContext的TLS会话可以在多次请求间复用
+     *
+     * @param cacheKey
+     *            缓存key，需包含协议及证书等能区分SSLContext的信息
+     * @param sslContextGetter
+     *            缓存中不存在时用于创建SSLContext
+     * @return
+     */
+    protected OkHttpClient getDerivedHttpsClient(String cacheKey, Callable<SSLContext> sslContextGetter) {
+        return getClientHolder().getDerivedHttpsClient(cacheKey, sslContextGetter);
     }
 
     public static SSLContext getSSLContext(String... sslProtocol) throws Exception {
+        return getSSLContext((KeyManager[])null, sslProtocol);
+    }
+
+    public static SSLContext getSSLContext(KeyManager[] keyManagers, String... sslProtocol) throws Exception {
         SSLContext sslContext = SSLContext.getInstance(DefaultValueGetter.getValue(SSL_PROTOCOL_TLS, sslProtocol));
-        sslContext.init(null, new TrustManager[] {new AnyTrustManager()}, new java.security.SecureRandom());
+        sslContext.init(keyManagers, new TrustManager[] {new AnyTrustManager()}, new java.security.SecureRandom());
         return sslContext;
     }
 
+    /**
+     * 获取证书文件对应的SSLContext，按证书文件缓存，证书文件变更后才重新加载
+     * 
+     * @see OKHttpCertClientRegistry#getSSLContextByFile(String, String, String, String, String...)
+     */
     public static SSLContext getSSLContextWithCA(String cafilepath, String capwd, String keyStoreType,
         String keyManagerFactoryAlgorithm, String... sslProtocol) throws Exception {
-        SSLContext sslContext = SSLContext.getInstance(DefaultValueGetter.getValue(SSL_PROTOCOL_TLS, sslProtocol));
-        sslContext.init(HttpCertFileUtils
-            .getKeyManagerFactory(cafilepath, capwd, keyStoreType, keyManagerFactoryAlgorithm).getKeyManagers(),
-            new TrustManager[] {new AnyTrustManager()}, new java.security.SecureRandom());
-        return sslContext;
+        return OKHttpCertClientRegistry.getSSLContextByFile(cafilepath, capwd, keyStoreType,
+            keyManagerFactoryAlgorithm, sslProtocol);
     }
 
     /**
@@ -185,7 +221,7 @@ public abstract class OKHttpSenderBase {
      * @throws Exception
      */
     public String httpGetMap(String url, Map<String, String> paramMap, String... responseCharset) throws Exception {
-        return httpExecute(createCommonClient(url), createHttpGet(url + getKeyValueStrFromMap(url, paramMap), null),
+        return httpExecute(createCommonClient(url), createHttpGet(url, HttpQueryParams.of(paramMap), null),
             responseCharset);
     }
 
@@ -200,6 +236,22 @@ public abstract class OKHttpSenderBase {
         httpGetToGetFile(createCommonClient(url), createHttpGet(url, null), filePath);
     }
 
+    /**
+     * 发送请求获取文件流,并写入到filePath的文件中
+     * 
+     * @param url
+     * @param filePath
+     * @param resume
+     *            是否断点续传
+     * @param progressListener
+     *            下载进度回调，可为空
+     * @throws Exception
+     */
+    public void httpGetFile(String url, String filePath, boolean resume, DownloadProgressListener progressListener)
+        throws Exception {
+        httpGetToGetFile(createCommonClient(url), createHttpGet(url, null), filePath, resume, progressListener);
+    }
+
     /**
      * 发送请求获取文件流,并写入到filePath的文件中(用于必须严格按照第三方提供的url进行请求的情况)
      * 
@@ -211,6 +263,31 @@ public abstract class OKHttpSenderBase {
         httpGetToGetFile(createCommonClient(url), createHttpGet4OriginalUrl(url, null), filePath);
     }
 
+    /**
+     * 请求url，并流式处理返回报文
+     * 
+     * @param url
+     * @param bodyHandler
+     *            返回报文的处理方法
+     * @return 重定向时返回null
+     * @throws Exception
+     */
+    public <T> T httpGetStream(String url, ResponseBodyHandler<T> bodyHandler) throws Exception {
+        return httpExecuteStream(createCommonClient(url), createHttpGet(url, null), bodyHandler);
+    }
+
+    /**
+     * 请求url，并把返回报文直接写入到输出流(不会关闭输出流)
+     * 
+     * @param url
+     * @param outputStream
+     * @return 写入的字节数
+     * @throws Exception
+     */
+    public long httpGetToStream(String url, OutputStream outputStream) throws Exception {
+        return httpExecuteToSink(createCommonClient(url), createHttpGet(url, null), Okio.sink(outputStream));
+    }
+
     /**
      * 请求不带参数的url(当然url后面可跟参数)
      * 
@@ -299,6 +376,301 @@ public abstract class OKHttpSenderBase {
             responseCharset);
     }
 
+    /**
+     * post一个请求报文，可用{@link HttpRequestBodies}创建
+     * 
+     * @param url
+     * @param requestBody
+     * @param responseCharset
+     * @return
+     * @throws Exception
+     */
+    public String httpPostBody(String url, RequestBody requestBody, String... responseCharset) throws Exception {
+        return httpExecute(createCommonClient(url), createHttpPost(url, requestBody, null), responseCharset);
+    }
+
+    /**
+     * post一个ByteString报文
+     * 
+     * @param url
+     * @param content
+     * @param mediaType
+     *            报文类型，如application/json; charset=UTF-8
+     * @param responseCharset
+     * @return
+     * @throws Exception
+     */
+    public String httpPostBody(String url, ByteString content, MediaType mediaType, String... responseCharset)
+        throws Exception {
+        return httpPostBody(url, HttpRequestBodies.of(content, mediaType), responseCharset);
+    }
+
+    /**
+     * post一个byte数组报文(不会复制该数组)
+     * 
+     * @param url
+     * @param content
+     * @param mediaType
+     *            报文类型，如application/json; charset=UTF-8
+     * @param responseCharset
+     * @return
+     * @throws Exception
+     */
+    public String httpPostBody(String url, byte[] content, MediaType mediaType, String... responseCharset)
+        throws Exception {
+        return httpPostBody(url, HttpRequestBodies.of(content, mediaType), responseCharset);
+    }
+
+    /**
+     * post一个ByteBuffer报文(发送position到limit之间的内容)
+     * 
+     * @param url
+     * @param content
+     * @param mediaType
+     *            报文类型，如application/json; charset=UTF-8
+     * @param responseCharset
+     * @return
+     * @throws Exception
+     */
+    public String httpPostBody(String url, ByteBuffer content, MediaType mediaType, String... responseCharset)
+        throws Exception {
+        return httpPostBody(url, HttpRequestBodies.of(content, mediaType), responseCharset);
+    }
+
+    /**
+     * post一个文件的内容，发送时边读边写
+     * 
+     * @param url
+     * @param path
+     * @param mediaType
+     *            报文类型，如application/xml; charset=UTF-8
+     * @param responseCharset
+     * @return
+     * @throws Exception
+     */
+    public String httpPostBody(String url, Path path, MediaType mediaType, String... responseCharset)
+        throws Exception {
+        return httpPostBody(url, HttpRequestBodies.of(path, mediaType), responseCharset);
+    }
+
+    /**
+     * post一个文件的内容，发送时边读边写
+     * 
+     * @param url
+     * @param file
+     * @param mediaType
+     *            报文类型，如application/xml; charset=UTF-8
+     * @param responseCharset
+     * @return
+     * @throws Exception
+     */
+    public String httpPostBody(String url, File file, MediaType mediaType, String... responseCharset)
+        throws Exception {
+        return httpPostBody(url, HttpRequestBodies.of(file, mediaType), responseCharset);
+    }
+
+    /**
+     * post一个输入流的内容，发送时边读边写，发送完成后会关闭输入流
+     * 
+     * @param url
+     * @param inputStream
+     * @param contentLength
+     *            报文长度，未知时传-1
+     * @param mediaType
+     *            报文类型，如application/xml; charset=UTF-8
+     * @param responseCharset
+     * @return
+     * @throws Exception
+     */
+    public String httpPostBody(String url, InputStream inputStream, long contentLength, MediaType mediaType,
+        String... responseCharset) throws Exception {
+        return httpPostBody(url, HttpRequestBodies.of(inputStream, contentLength, mediaType), responseCharset);
+    }
+
+    /**
+     * post一个由回调流式写出的报文
+     * 
+     * @param url
+     * @param writer
+     * @param mediaType
+     *            报文类型，如application/json; charset=UTF-8
+     * @param responseCharset
+     * @return
+     * @throws Exception
+     */
+    public String httpPostBody(String url, RequestBodyWriter writer, MediaType mediaType, String... responseCharset)
+        throws Exception {
+        return httpPostBody(url, HttpRequestBodies.of(writer, mediaType), responseCharset);
+    }
+
+    /**
+     * 上传MultiPart表单
+     * 
+     * @param url
+     * @param paramMap
+     *            表单参数
+     * @param parts
+     *            要上传的文件部分
+     * @param progressListener
+     *            上传进度的回调，可为空
+     * @param responseCharset
+     * @return
+     * @throws Exception
+     */
+    public String httpPostMultiPart(String url, Map<String, String> paramMap, List<HttpMultipartPart> parts,
+        UploadProgressListener progressListener, String... responseCharset) throws Exception {
+        return httpExecute(createCommonClient(url), createHttpPostMultiPartForm(url, paramMap,
+            ParamDataType.KEY_VALUE_MAP, null, parts, progressListener), responseCharset);
+    }
+
+    /**
+     * 请求url并把返回的JSON报文直接转换为对象
+     * 
+     * @param url
+     * @param responseType
+     *            返回对象的类型
+     * @return 重定向时返回null
+     * @throws Exception
+     */
+    public <T> T getJson(String url, Class<T> responseType) throws Exception {
+        return getJson(url, (Type)responseType);
+    }
+
+    /**
+     * 请求url并把返回的JSON报文直接转换为对象
+     * 
+     * @param url
+     * @param responseType
+     *            返回对象的类型，泛型类型可用{@link com.alibaba.fastjson.TypeReference#getType()}获取
+     * @return 重定向时返回null
+     * @throws Exception
+     */
+    public <T> T getJson(String url, Type responseType) throws Exception {
+        return httpExecuteJson(createCommonClient(url), createHttpGet(url, null), responseType);
+    }
+
+    /**
+     * 把对象序列化为JSON报文post到url，并把返回的JSON报文直接转换为对象<br>
+     * 请求报文直接写到连接上，返回报文直接从连接读取解析，都不会生成完整报文的中间String
+     * 
+     * @param url
+     * @param body
+     *            请求对象，为null时发送空JSON
+     * @param responseType
+     *            返回对象的类型
+     * @return 重定向时返回null
+     * @throws Exception
+     */
+    public <T> T postJson(String url, Object body, Class<T> responseType) throws Exception {
+        return postJson(url, body, (Type)responseType);
+    }
+
+    /**
+     * 把对象序列化为JSON报文post到url，并把返回的JSON报文直接转换为对象
+     * 
+     * @param url
+     * @param body
+     *            请求对象，为null时发送空JSON
+     * @param responseType
+     *            返回对象的类型，泛型类型可用{@link com.alibaba.fastjson.TypeReference#getType()}获取
+     * @return 重定向时返回null
+     * @throws Exception
+     */
+    public <T> T postJson(String url, Object body, Type responseType) throws Exception {
+        return httpExecuteJson(createCommonClient(url), createHttpPost(url, HttpRequestBodies.ofJson(body), null),
+            responseType);
+    }
+
+    /**
+     * 异步请求不带参数的url(当然url后面可跟参数)
+     * 
+     * @param url
+     * @param responseCharset
+     * @return
+     * @throws Exception
+     */
+    public CompletableFuture<HttpResult> httpGetAsync(String url, String... responseCharset) throws Exception {
+        return httpExecuteAsync(createCommonClient(url), createHttpGet(url, null), 0, null, responseCharset);
+    }
+
+    /**
+     * 异步请求url，且可用paramMap传参
+     * 
+     * @param url
+     * @param paramMap
+     * @param responseCharset
+     * @return
+     * @throws Exception
+     */
+    public CompletableFuture<HttpResult> httpGetMapAsync(String url, Map<String, String> paramMap,
+        String... responseCharset) throws Exception {
+        return httpExecuteAsync(createCommonClient(url),
+            createHttpGet(url, HttpQueryParams.of(paramMap), null), 0, null, responseCharset);
+    }
+
+    /**
+     * 异步请求url
+     * 
+     * @param url
+     * @param paramMap
+     *            参数map
+     * @param responseCharset
+     * @return
+     * @throws Exception
+     */
+    public CompletableFuture<HttpResult> httpPostMapAsync(String url, Map<String, String> paramMap,
+        String... responseCharset) throws Exception {
+        return httpExecuteAsync(createCommonClient(url),
+            createHttpPost(url, paramMap, ParamDataType.KEY_VALUE_MAP, null), 0, null, responseCharset);
+    }
+
+    /**
+     * 异步post一个XML串
+     * 
+     * @param url
+     * @param paramDataXML
+     *            XML格式的字符串
+     * @param responseCharset
+     * @return
+     * @throws Exception
+     */
+    public CompletableFuture<HttpResult> httpPostXmlAsync(String url, String paramDataXML,
+        String... responseCharset) throws Exception {
+        return httpExecuteAsync(createCommonClient(url), createHttpPost(url, paramDataXML, ParamDataType.XML, null),
+            0, null, responseCharset);
+    }
+
+    /**
+     * 异步post一个JSON串
+     * 
+     * @param url
+     * @param paramDataJSON
+     *            JSON格式的字符串
+     * @param responseCharset
+     * @return
+     * @throws Exception
+     */
+    public CompletableFuture<HttpResult> httpPostJsonAsync(String url, String paramDataJSON,
+        String... responseCharset) throws Exception {
+        return httpExecuteAsync(createCommonClient(url), createHttpPost(url, paramDataJSON, ParamDataType.JSON, null),
+            0, null, responseCharset);
+    }
+
+    /**
+     * 异步post一个请求报文，可用{@link HttpRequestBodies}创建
+     * 
+     * @param url
+     * @param requestBody
+     * @param responseCharset
+     * @return
+     * @throws Exception
+     */
+    public CompletableFuture<HttpResult> httpPostBodyAsync(String url, RequestBody requestBody,
+        String... responseCharset) throws Exception {
+        return httpExecuteAsync(createCommonClient(url), createHttpPost(url, requestBody, null), 0, null,
+            responseCharset);
+    }
+
     public OkHttpClient createCommonClient(String url, String... sslProtocol) throws Exception {
         String[] urlInfos = checkUrl(url);
         if (!Boolean.valueOf(urlInfos[0])) {
@@ -308,6 +680,21 @@ public abstract class OKHttpSenderBase {
         }
     }
 
+    /**
+     * 获取已在{@link OKHttpCertClientRegistry}注册的双向认证客户端
+     *
+     * @param url
+     * @param certName
+     *            注册时的证书名称
+     * @return
+     * @throws Exception
+     */
+    public OkHttpClient createCertClient(String url, String certName) throws Exception {
+        String[] urlInfos = checkUrl(url);
+        CheckUtils.checkNotTrue(!Boolean.valueOf(urlInfos[0]), "双向认证的请求地址必须是https协议");
+        return OKHttpCertClientRegistry.getClient(certName);
+    }
+
     private String[] checkUrl(String url) {
         CheckUtils.checkNotEmpty(url, "请求地址不可为空");
         Boolean isHttps = false;
@@ -344,45 +731,53 @@ public abstract class OKHttpSenderBase {
      */
     public Request createHttpGet(String url, Map<String, String> extraHeaders, String... paramCharset)
         throws Exception {
-        String[] urlInfos = checkUrl(url);
-        String trueUrl = urlInfos[1];
-        String paramAfterUrl = "";
-        String truePararmCharset = DefaultValueGetter.getValue(CharsetUtils.UTF_8, paramCharset);
-
-        if (urlInfos.length > 2 && CheckUtils.isNotEmpty(urlInfos[2])) {
-            // GET请求要对参数进行编码
-            Map<String, String> paramMap = getMapFromKeyValueStr(urlInfos[2]);
-            for (Entry<String, String> enrtySet : paramMap.entrySet()) {
-                String paramKey = enrtySet.getKey();
-                String paramValue = enrtySet.getValue();
-                if (CheckUtils.areNotEmpty(paramKey, paramValue)) {
-                    paramAfterUrl += URLEncoder.encode(paramKey, truePararmCharset) + "="
-                        + URLEncoder.encode(paramValue, truePararmCharset) + "&";
-                }
-            }
-        }
-        if (CheckUtils.isNotEmpty(paramAfterUrl)) {
-            trueUrl += "?" + paramAfterUrl.substring(0, paramAfterUrl.length() - 1); // 去掉最后的&号
-        }
-        log.info("requestURL=========>{}", trueUrl);
-        return addExtraHeaders(new Request.Builder().url(trueUrl), extraHeaders).build();
+        return createHttpGet(url, null, extraHeaders, paramCharset);
     }
 
     /**
-     * 创建GET请求的okhttpRequest(用于必须严格按照第三方提供的url进行请求的情况)
+     * 创建GET请求的okhttpRequest，额外的参数追加在url后的参数之后
      * 
      * @param url
+     * @param extraParams
+     *            额外的参数，参数值不会再被拆分(参数值中的&amp;号会编码为%26)，可为空
      * @param extraHeaders
      *            额外传的headers
      * @param paramCharset
      * @return
      * @throws Exception
      */
-    public Request createHttpGet4OriginalUrl(String url, Map<String, String> extraHeaders, String... paramCharset)
-        throws Exception {
-        checkUrl(url);
-        log.info("requestURL=========>{}", url);
-        return addExtraHeaders(new Request.Builder().url(url), extraHeaders).build();
+    public Request createHttpGet(String url, HttpQueryParams extraParams, Map<String, String> extraHeaders,
+        String... paramCharset) throws Exception {
+        String[] urlInfos = checkUrl(url);
+        String trueUrl = urlInfos[1];
+        String truePararmCharset = DefaultValueGetter.getValue(CharsetUtils.UTF_8, paramCharset);
+
+        // GET请求要对参数进行编码(保留参数顺序及重复的参数)
+        HttpQueryParams params = HttpQueryParams.parse(urlInfos.length > 2 ? urlInfos[2] : null);
+        if (CheckUtils.isNotNull(extraParams)) {
+            params.addAll(extraParams);
+        }
+        if (!params.isEmpty()) {
+            StringBuilder urlBuilder = new StringBuilder(url.length() * 2).append(trueUrl).append('?');
+            trueUrl = params.encodeTo(urlBuilder, CharsetUtils.forName(truePararmCharset)).toString();
+        }
+        return newRequestBuilder(trueUrl, extraHeaders, getLogPolicy().sampleLevel()).build();
+    }
+
+    /**
+     * 创建GET请求的okhttpRequest(用于必须严格按照第三方提供的url进行请求的情况)
+     * 
+     * @param url
+     * @param extraHeaders
+     *            额外传的headers
+     * @param paramCharset
+     * @return
+     * @throws Exception
+     */
+    public Request createHttpGet4OriginalUrl(String url, Map<String, String> extraHeaders, String... paramCharset)
+        throws Exception {
+        checkUrl(url);
+        return newRequestBuilder(url, extraHeaders, getLogPolicy().sampleLevel()).build();
     }
 
     /**
@@ -406,15 +801,16 @@ public abstract class OKHttpSenderBase {
         String trueUrl = urlInfos[1];
         String paramAfterUrl = "";
         String truePararmCharset = DefaultValueGetter.getValue(CharsetUtils.UTF_8, paramCharset);
-        log.info("requestURL=========>{}", trueUrl);
+        HttpLogLevel logLevel = getLogPolicy().sampleLevel();
 
         if (urlInfos.length > 2 && CheckUtils.isNotEmpty(urlInfos[2])) {
             paramAfterUrl = urlInfos[2];
         }
-        Request.Builder builder = addExtraHeaders(new Request.Builder().url(trueUrl), extraHeaders);
+        Request.Builder builder = newRequestBuilder(trueUrl, extraHeaders, logLevel);
 
         // 设置参数
-        if (ParamDataType.XML.equals(paramDataType) || ParamDataType.JSON.equals(paramDataType)) {
+        if (ParamDataType.XML.equals(paramDataType) || ParamDataType.JSON.equals(paramDataType)
+            || ParamDataType.RAW.equals(paramDataType)) {
             String paramData = (String)paramDataObj;
 
             if (CheckUtils.isEmpty(paramData)) {
@@ -438,45 +834,53 @@ public abstract class OKHttpSenderBase {
                     : (ParamDataType.JSON.equals(paramDataType) ? "application/json" : "text/plain"))
                     + "; charset=" + truePararmCharset);
             RequestBody requestBody = RequestBody.create(paramData, meidaType);
-            log.info("request{}========>{}", paramDataType, paramData);
+            if (isLogEnabled(logLevel, HttpLogLevel.BODY)) {
+                log.info("request{}========>{}", paramDataType, getLogPolicy().truncate(paramData));
+            }
             builder.post(requestBody);
         } else if (ParamDataType.KEY_VALUE_STR.equals(paramDataType)) {
-            String paramData = (String)paramDataObj;
-
-            if (CheckUtils.isNotEmpty(paramAfterUrl)) {
-                if (CheckUtils.isNotEmpty(paramData)) {
-                    paramData = paramAfterUrl + "&" + paramData;
-                } else {
-                    paramData = paramAfterUrl;
-                }
-            }
-
-            Map<String, String> paramMap = new HashMap<>();
-            if (CheckUtils.isNotEmpty(paramData)) {
-                paramMap.putAll(getMapFromKeyValueStr(paramData));
-            }
-            postForm(builder, paramMap, truePararmCharset);
+            // url后的参数在前(保留参数顺序及重复的参数)
+            HttpQueryParams params = HttpQueryParams.parse(paramAfterUrl);
+            params.addAll(HttpQueryParams.parse((String)paramDataObj));
+            postForm(builder, params, truePararmCharset, logLevel);
         } else {
-            // KEY_VALUE_MAP形式
-            Map<String, String> paramMap = (Map<String, String>)paramDataObj;
-
-            if (null == paramMap) {
-                paramMap = new HashMap<>();
-            }
-
-            if (CheckUtils.isNotEmpty(paramAfterUrl)) {
-                paramMap.putAll(getMapFromKeyValueStr(paramAfterUrl));
-            }
-            postForm(builder, paramMap, truePararmCharset);
+            // KEY_VALUE_MAP形式，url后的参数在前，不修改传入的map，map中的参数值不会再被拆分
+            HttpQueryParams params = HttpQueryParams.parse(paramAfterUrl);
+            params.addAll((Map<String, String>)paramDataObj);
+            postForm(builder, params, truePararmCharset, logLevel);
         }
         return builder.build();
     }
 
-    private void postForm(Request.Builder builder, Map<String, String> paramMap, String truePararmCharset) {
+    /**
+     * 用已有的请求报文创建POST请求的okhttpRequest(url后的参数原样保留)
+     * 
+     * @param url
+     * @param requestBody
+     *            请求报文，可用{@link HttpRequestBodies}创建，报文类型由{@link RequestBody#contentType()}决定
+     * @param extraHeaders
+     *            额外传的headers
+     * @return
+     * @throws Exception
+     */
+    public Request createHttpPost(String url, RequestBody requestBody, Map<String, String> extraHeaders)
+        throws Exception {
+        checkUrl(url);
+        CheckUtils.checkNotNull(requestBody, "请求报文不能为空");
+        HttpLogLevel logLevel = getLogPolicy().sampleLevel();
+        if (isLogEnabled(logLevel, HttpLogLevel.BODY)) {
+            // 不读取报文内容，避免流式报文被提前消费
+            log.info("requestBody========>{}, {} bytes", requestBody.contentType(), requestBody.contentLength());
+        }
+        return newRequestBuilder(url, extraHeaders, logLevel).post(requestBody).build();
+    }
+
+    private void postForm(Request.Builder builder, HttpQueryParams params, String truePararmCharset,
+        HttpLogLevel logLevel) {
         FormBody requestBody = null;
         FormBody.Builder bodyBuilder = new FormBody.Builder(CharsetUtils.forName(truePararmCharset));
-        if (CheckUtils.isNotEmpty(paramMap)) {
-            requestBody = addPostParams(bodyBuilder, paramMap).build();
+        if (!params.isEmpty()) {
+            requestBody = addPostParams(bodyBuilder, params, logLevel).build();
         } else {
             requestBody = bodyBuilder.build();
         }
@@ -486,20 +890,28 @@ public abstract class OKHttpSenderBase {
         builder.post(requestBody);
     }
 
-    private FormBody.Builder addPostParams(FormBody.Builder builder, Map<String, String> paramMap) {
-        if (CheckUtils.isNotEmpty(paramMap)) {
-            StringBuilder paramData = new StringBuilder("");
-            paramMap.forEach((paramKey, paramValue) -> {
-                if (CheckUtils.areNotEmpty(paramKey, paramValue)) {
-                    paramData.append(paramKey + "=" + paramValue + "&");
-                    builder.add(paramKey, paramValue);
-                }
-            });
-            log.info("requestParam=======>{}", paramData);
+    private FormBody.Builder addPostParams(FormBody.Builder builder, HttpQueryParams params,
+        HttpLogLevel logLevel) {
+        if (!params.isEmpty()) {
+            // 不需要打印参数时不拼接参数字符串
+            StringBuilder paramData = isLogEnabled(logLevel, HttpLogLevel.BODY) ? new StringBuilder() : null;
+            for (int i = 0; i < params.size(); i++) {
+                appendLogParam(paramData, params.name(i), params.value(i));
+                builder.add(params.name(i), params.value(i));
+            }
+            if (CheckUtils.isNotNull(paramData)) {
+                log.info("requestParam=======>{}", getLogPolicy().truncate(paramData.toString()));
+            }
         }
         return builder;
     }
 
+    private static void appendLogParam(StringBuilder paramData, String paramKey, String paramValue) {
+        if (CheckUtils.isNotNull(paramData)) {
+            paramData.append(paramKey).append('=').append(paramValue).append('&');
+        }
+    }
+
     /**
      * 创建POST MultiPart表单的okhttpRequest
      * 
@@ -518,93 +930,130 @@ public abstract class OKHttpSenderBase {
      * @return
      * @throws Exception
      */
-    @SuppressWarnings("unchecked")
     public Request createHttpPostMultiPartForm(String url, Object paramDataObj, ParamDataType paramDataType,
         Map<String, String> extraHeaders, String fileParamName, String[] filePaths, String... paramCharset)
         throws Exception {
+        List<HttpMultipartPart> parts = new ArrayList<>();
+        if (CheckUtils.isNotEmpty(filePaths)) {
+            String trueFileParamName = DefaultValueGetter.getValue("file", fileParamName);
+            for (String filePath : filePaths) {
+                File file = new File(filePath);
+                if (!file.exists()) {
+                    throw new RuntimeException(filePath + "不存在");
+                } else if (file.isDirectory()) {
+                    throw new RuntimeException(filePath + "不是文件");
+                }
+                parts.add(HttpMultipartPart.of(trueFileParamName, file));
+            }
+        }
+        return createHttpPostMultiPartForm(url, paramDataObj, paramDataType, extraHeaders, parts, null,
+            paramCharset);
+    }
+
+    /**
+     * 创建POST MultiPart表单的okhttpRequest，文件部分可来自文件、ByteString或输入流
+     * 
+     * @param url
+     * @param paramDataObj
+     *            参数对象，根据paramDataType参数决定对象内容
+     * @param paramDataType
+     *            {@link ParamDataType}
+     * @param extraHeaders
+     *            额外传的headers
+     * @param parts
+     *            要上传的文件部分，单个部分的长度不能超过{@link OKHttpClientConfig#getMaxMultipartPartSize()}
+     * @param progressListener
+     *            上传进度的回调，可为空
+     * @param paramCharset
+     * @return
+     * @throws Exception
+     */
+    @SuppressWarnings("unchecked")
+    public Request createHttpPostMultiPartForm(String url, Object paramDataObj, ParamDataType paramDataType,
+        Map<String, String> extraHeaders, List<HttpMultipartPart> parts, UploadProgressListener progressListener,
+        String... paramCharset) throws Exception {
         String[] urlInfos = checkUrl(url);
         String trueUrl = urlInfos[1];
         String paramAfterUrl = "";
         String truePararmCharset = DefaultValueGetter.getValue(CharsetUtils.UTF_8, paramCharset);
-        log.info("requestURL=========>{}", trueUrl);
+        HttpLogLevel logLevel = getLogPolicy().sampleLevel();
 
         if (urlInfos.length > 2 && CheckUtils.isNotEmpty(urlInfos[2])) {
             paramAfterUrl = urlInfos[2];
         }
-        Request.Builder builder = addExtraHeaders(new Request.Builder().url(trueUrl), extraHeaders);
+        Request.Builder builder = newRequestBuilder(trueUrl, extraHeaders, logLevel);
 
         // 设置参数
-        if (ParamDataType.XML.equals(paramDataType) || ParamDataType.JSON.equals(paramDataType)) {
-            throw new Exception("该方法不支持XML或JSON类型的字符串参数");
+        if (ParamDataType.XML.equals(paramDataType) || ParamDataType.JSON.equals(paramDataType)
+            || ParamDataType.RAW.equals(paramDataType)) {
+            throw new Exception("该方法不支持XML、JSON或RAW类型的字符串参数");
         } else if (ParamDataType.KEY_VALUE_STR.equals(paramDataType)) {
-            String paramData = (String)paramDataObj;
-
-            if (CheckUtils.isNotEmpty(paramAfterUrl)) {
-                if (CheckUtils.isNotEmpty(paramData)) {
-                    paramData = paramAfterUrl + "&" + paramData;
-                } else {
-                    paramData = paramAfterUrl;
-                }
-            }
-
-            Map<String, String> paramMap = new HashMap<>();
-            if (CheckUtils.isNotEmpty(paramData)) {
-                paramMap.putAll(getMapFromKeyValueStr(paramData));
-            }
-            postMultiPartForm(builder, paramMap, truePararmCharset, fileParamName, filePaths);
+            // url后的参数在前(保留参数顺序及重复的参数)
+            HttpQueryParams params = HttpQueryParams.parse(paramAfterUrl);
+            params.addAll(HttpQueryParams.parse((String)paramDataObj));
+            postMultiPartForm(builder, params, truePararmCharset, parts, progressListener, logLevel);
         } else {
-            // KEY_VALUE_MAP形式
-            Map<String, String> paramMap = (Map<String, String>)paramDataObj;
-
-            if (null == paramMap) {
-                paramMap = new HashMap<>();
-            }
-
-            if (CheckUtils.isNotEmpty(paramAfterUrl)) {
-                paramMap.putAll(getMapFromKeyValueStr(paramAfterUrl));
-            }
-            postMultiPartForm(builder, paramMap, truePararmCharset, fileParamName, filePaths);
+            // KEY_VALUE_MAP形式，url后的参数在前，不修改传入的map，map中的参数值不会再被拆分
+            HttpQueryParams params = HttpQueryParams.parse(paramAfterUrl);
+            params.addAll((Map<String, String>)paramDataObj);
+            postMultiPartForm(builder, params, truePararmCharset, parts, progressListener, logLevel);
         }
         return builder.build();
     }
 
-    private void postMultiPartForm(Request.Builder builder, Map<String, String> paramMap, String truePararmCharset,
-        String fileParamName, String[] filePaths) {
+    private void postMultiPartForm(Request.Builder builder, HttpQueryParams params, String truePararmCharset,
+        List<HttpMultipartPart> parts, UploadProgressListener progressListener, HttpLogLevel logLevel)
+        throws IOException {
         MultipartBody.Builder bodyBuilder = new MultipartBody.Builder().setType(MultipartBody.FORM);
-        if (CheckUtils.isNotEmpty(paramMap)) {
-            StringBuilder paramData = new StringBuilder("");
-            paramMap.forEach((paramKey, paramValue) -> {
-                if (CheckUtils.areNotEmpty(paramKey, paramValue)) {
-                    paramData.append(paramKey + "=" + paramValue + "&");
-                    try {
-                        bodyBuilder.addFormDataPart(paramKey, new String(paramValue.getBytes(), truePararmCharset));
-                    } catch (Exception e) {
-                        bodyBuilder.addFormDataPart(paramKey, paramValue);
-                    }
-                }
-            });
-            log.info("requestParam=======>{}", paramData);
-        }
-        if (CheckUtils.isNotEmpty(filePaths)) {
-            CollectionUtils.forEach(filePaths, filePath -> {
+        if (!params.isEmpty()) {
+            StringBuilder paramData = isLogEnabled(logLevel, HttpLogLevel.BODY) ? new StringBuilder() : null;
+            for (int i = 0; i < params.size(); i++) {
+                String paramKey = params.name(i);
+                String paramValue = params.value(i);
+                appendLogParam(paramData, paramKey, paramValue);
                 try {
-                    File file = new File(filePath);
-                    if (!file.exists()) {
-                        throw new RuntimeException(filePath + "不存在");
-                    } else if (file.isDirectory()) {
-                        throw new RuntimeException(filePath + "不是文件");
-                    }
-
-                    okhttp3.MediaType meidaType = okhttp3.MediaType.parse(new Tika().detect(file));
-                    bodyBuilder.addFormDataPart(DefaultValueGetter.getValue("file", fileParamName), file.getName(),
-                        RequestBody.create(file, meidaType));
+                    bodyBuilder.addFormDataPart(paramKey, new String(paramValue.getBytes(), truePararmCharset));
                 } catch (Exception e) {
-                    throw new Continue(e);
+                    bodyBuilder.addFormDataPart(paramKey, paramValue);
                 }
-            });
+            }
+            if (CheckUtils.isNotNull(paramData)) {
+                log.info("requestParam=======>{}", getLogPolicy().truncate(paramData.toString()));
+            }
+        }
+        if (CheckUtils.isNotEmpty(parts)) {
+            long maxPartSize = getClientConfig().getMaxMultipartPartSize();
+            for (HttpMultipartPart part : parts) {
+                if (maxPartSize > 0 && part.contentLength() > maxPartSize) {
+                    throw new IllegalArgumentException("上传的文件[" + part.getFileName() + "]超过" + maxPartSize + "字节");
+                }
+                if (isLogEnabled(logLevel, HttpLogLevel.BODY)) {
+                    log.info("requestFile========>{}={}, {}, {} bytes", part.getName(), part.getFileName(),
+                        part.getBody().contentType(), part.contentLength());
+                }
+                bodyBuilder.addFormDataPart(part.getName(), part.getFileName(), part.getBody());
+            }
         }
 
-        builder.post(bodyBuilder.build());
+        RequestBody requestBody = bodyBuilder.build();
+        builder.post(CheckUtils.isNotNull(progressListener)
+            ? HttpRequestBodies.withProgress(requestBody, progressListener) : requestBody);
+    }
+
+    /**
+     * 创建请求的builder，并记录该请求使用的日志级别
+     * 
+     * @param url
+     * @param extraHeaders
+     * @param logLevel
+     * @return
+     */
+    private Request.Builder newRequestBuilder(String url, Map<String, String> extraHeaders, HttpLogLevel logLevel) {
+        if (isLogEnabled(logLevel, HttpLogLevel.SUMMARY)) {
+            log.info("requestURL=========>{}", url);
+        }
+        Request.Builder builder = new Request.Builder().url(url).tag(HttpLogLevel.class, logLevel);
+        return addExtraHeaders(builder, extraHeaders, logLevel);
     }
 
     /**
@@ -612,10 +1061,14 @@ public abstract class OKHttpSenderBase {
      * 
      * @param builder
      * @param extraHeaders
+     * @param logLevel
      */
-    private Request.Builder addExtraHeaders(Request.Builder builder, Map<String, String> extraHeaders) {
+    private Request.Builder addExtraHeaders(Request.Builder builder, Map<String, String> extraHeaders,
+        HttpLogLevel logLevel) {
         if (CheckUtils.isNotEmpty(extraHeaders)) {
-            log.info("extraHeaders=======>{}", extraHeaders);
+            if (isLogEnabled(logLevel, HttpLogLevel.HEADERS)) {
+                log.info("extraHeaders=======>{}", extraHeaders);
+            }
             extraHeaders.forEach((headerName, headerValue) -> {
                 if (CheckUtils.areNotEmpty(headerName, headerValue)) {
                     builder.addHeader(headerName, headerValue);
@@ -625,59 +1078,434 @@ public abstract class OKHttpSenderBase {
         return builder;
     }
 
+    /**
+     * 解析key1=value1&key2=value2形式的参数字符串(保留参数顺序，重复的参数名以最后一个为准)
+     * 
+     * @param paramData
+     * @return
+     * @see HttpQueryParams#parse(String)
+     */
     public static Map<String, String> getMapFromKeyValueStr(String paramData) {
-        Map<String, String> map = new HashMap<>();
-        if (CheckUtils.isEmpty(paramData)) {
-            return map;
-        }
-
-        String[] params = paramData.split("&"); // 这里如果参数中有带&号，则可能导致出错
-        for (int i = 0; i < params.length; i++) {
-            int tmpIndex = params[i].indexOf("=");
-            if (tmpIndex > 0) {
-                String key = params[i].substring(0, tmpIndex);
-                String value = params[i].substring(tmpIndex + 1);
-                if (CheckUtils.areNotEmpty(key, value)) {
-                    map.put(key, value);
-                }
+        return HttpQueryParams.parse(paramData).toMap();
+    }
+
+    public static String getKeyValueStrFromMap(String url, Map<String, String> map) {
+        HttpQueryParams params = HttpQueryParams.of(map);
+        if (params.isEmpty()) {
+            return "";
+        }
+        return (url.indexOf("?") > -1 ? "&" : "?") + params.toString();
+    }
+
+    /**
+     * 发送请求并返回报文
+     * 
+     * @param client
+     * @param request
+     * @param responseCharset
+     * @return 重定向时返回重定向的地址，状态码非200且不是重定向时抛出{@link HttpException}
+     * @throws Exception
+     * @see #httpExecuteForResult(OkHttpClient, Request, String...)
+     */
+    public String httpExecute(OkHttpClient client, Request request, String... responseCharset) throws Exception {
+        try (HttpResult result = httpExecuteForResult(client, markShareable(request), responseCharset)) {
+            return readResponseStr(result);
+        }
+    }
+
+    /**
+     * 发送请求并返回包含状态码、header、耗时及返回报文的结果，状态码非200时不抛出异常<br>
+     * 返回报文在调用结果的读取方法时才读取及解码，使用完需要关闭结果
+     * 
+     * @param client
+     * @param request
+     * @param responseCharset
+     * @return
+     * @throws Exception
+     */
+    public HttpResult httpExecuteForResult(OkHttpClient client, Request request, String... responseCharset)
+        throws Exception {
+        long beginTime = System.currentTimeMillis();
+        HttpCallTimingsHolder timingsHolder = new HttpCallTimingsHolder();
+        Response response = executeCall(client, withTimingsHolder(request, timingsHolder));
+        logStatus(response, beginTime);
+        return new HttpResult(response, beginTime, timingsHolder, getClientConfig().getMaxBufferedBodySize(),
+            responseCharset);
+    }
+
+    /**
+     * 请求不带参数的url，返回包含状态码、header及耗时的结果，使用完需要关闭结果
+     * 
+     * @param url
+     * @param responseCharset
+     * @return
+     * @throws Exception
+     */
+    public HttpResult httpGetForResult(String url, String... responseCharset) throws Exception {
+        return httpExecuteForResult(createCommonClient(url), createHttpGet(url, null), responseCharset);
+    }
+
+    /**
+     * post一个请求报文，返回包含状态码、header及耗时的结果，使用完需要关闭结果
+     * 
+     * @param url
+     * @param requestBody
+     * @param responseCharset
+     * @return
+     * @throws Exception
+     */
+    public HttpResult httpPostBodyForResult(String url, RequestBody requestBody, String... responseCharset)
+        throws Exception {
+        return httpExecuteForResult(createCommonClient(url), createHttpPost(url, requestBody, null),
+            responseCharset);
+    }
+
+    /**
+     * 启用合并请求时，标记返回报文会完整读到内存中的请求可以合并
+     * 
+     * @param request
+     * @return
+     */
+    private Request markShareable(Request request) {
+        return CheckUtils.isNotNull(getClientHolder().getSingleFlightInterceptor())
+            ? HttpSingleFlightInterceptor.markShareable(request) : request;
+    }
+
+    /**
+     * 给请求加上记录耗时的tag，同时固定请求的日志级别(没有时采样一次)，保证同一请求前后打印的日志一致
+     * 
+     * @param request
+     * @param timingsHolder
+     * @return
+     */
+    private Request withTimingsHolder(Request request, HttpCallTimingsHolder timingsHolder) {
+        Request.Builder builder = request.newBuilder().tag(HttpCallTimingsHolder.class, timingsHolder);
+        if (CheckUtils.isNull(request.tag(HttpLogLevel.class))) {
+            builder.tag(HttpLogLevel.class, getLogPolicy().sampleLevel());
+        }
+        return builder.build();
+    }
+
+    /**
+     * 同步执行请求，按容错策略对GET/HEAD请求发出对冲请求
+     * 
+     * @param client
+     * @param request
+     * @return
+     * @throws IOException
+     */
+    protected Response executeCall(OkHttpClient client, Request request) throws IOException {
+        Call call = newCall(client, request);
+        String host = request.url().host();
+        HttpResiliencePolicy policy = getClientConfig().getResiliencePolicy(host);
+        if (CheckUtils.isNotNull(policy) && policy.isHedgeEnabled()
+            && ("GET".equals(request.method()) || "HEAD".equals(request.method()))) {
+            return HttpHedgedCall.execute(client, call, getHedgeDelayMillis(policy, host));
+        }
+        return call.execute();
+    }
+
+    /**
+     * 创建Call，并按请求上的{@link HttpCallTimeouts}及{@link HttpDeadline}设置整个请求的超时时间
+     * 
+     * @param client
+     * @param request
+     * @return
+     * @throws IOException
+     *             已超过截止时间时
+     */
+    protected Call newCall(OkHttpClient client, Request request) throws IOException {
+        Call call = client.newCall(request);
+        HttpCallTimeouts timeouts = request.tag(HttpCallTimeouts.class);
+        HttpDeadline deadline = request.tag(HttpDeadline.class);
+        long callTimeoutMillis = CheckUtils.isNotNull(timeouts) ? timeouts.getCallTimeoutMillis() : 0;
+        if (CheckUtils.isNotNull(deadline)) {
+            if (deadline.isExpired()) {
+                throw new InterruptedIOException("已超过请求的截止时间");
             }
+            callTimeoutMillis = deadline.limit(callTimeoutMillis);
+        }
+        if (callTimeoutMillis > 0) {
+            call.timeout().timeout(callTimeoutMillis, TimeUnit.MILLISECONDS);
         }
-        return map;
+        return call;
     }
 
-    public static String getKeyValueStrFromMap(String url, Map<String, String> map) {
-        String str = "";
-        if (null == map || map.size() <= 0) {
-            return str;
+    /**
+     * 设置单个请求的超时时间，不需要重新创建客户端
+     * 
+     * @param request
+     * @param timeouts
+     * @return 新的请求对象
+     */
+    public static Request withTimeouts(Request request, HttpCallTimeouts timeouts) {
+        return request.newBuilder().tag(HttpCallTimeouts.class, timeouts).build();
+    }
+
+    /**
+     * 设置请求的截止时间，各阶段的超时时间都不会超过剩余时间
+     * 
+     * @param request
+     * @param deadline
+     * @return 新的请求对象
+     */
+    public static Request withDeadline(Request request, HttpDeadline deadline) {
+        return request.newBuilder().tag(HttpDeadline.class, deadline).build();
+    }
+
+    /**
+     * 对冲请求的等待时间：样本足够时取该host成功请求首字节耗时的百分位，否则取最小等待时间
+     * 
+     * @param policy
+     * @param host
+     * @return
+     */
+    private long getHedgeDelayMillis(HttpResiliencePolicy policy, String host) {
+        HttpMetricsCollector metricsCollector = getClientConfig().getMetricsCollector();
+        if (metricsCollector instanceof InMemoryHttpMetrics) {
+            HostMetrics hostMetrics = ((InMemoryHttpMetrics)metricsCollector).getHostMetrics(host);
+            if (CheckUtils.isNotNull(hostMetrics)
+                && hostMetrics.getTimeToFirstByteLatency().getCount() >= policy.getMinHedgeSamples()) {
+                return Math.max(policy.getMinHedgeDelayMillis(),
+                    hostMetrics.getTimeToFirstByteLatency().getValueAtPercentile(policy.getHedgePercentile()));
+            }
         }
+        return policy.getMinHedgeDelayMillis();
+    }
+
+    /**
+     * 异步发送请求，配置了{@link OKHttpClientConfig#getAsyncQueueCapacity()}时经过异步请求的提交队列
+     *
+     * @param client
+     * @param request
+     * @param callTimeoutMillis
+     *            整个请求的超时时间(毫秒)，小于等于0时不限制；请求已设置截止时间或超时时间时取较小值
+     * @param executor
+     *            执行future回调的线程池，为空时在okhttp的线程中执行
+     * @param responseCharset
+     * @return 调用cancel时会同时取消请求；收到返回时不论状态码都以{@link HttpResult}结束(需自行判断
+     *         {@link HttpResult#isSuccess()}、{@link HttpResult#isRedirect()})，只有请求失败时才异常结束
+     */
+    public CompletableFuture<HttpResult> httpExecuteAsync(OkHttpClient client, Request request,
+        long callTimeoutMillis, Executor executor, String... responseCharset) {
+        long beginTime = System.currentTimeMillis();
+        HttpCallTimingsHolder timingsHolder = new HttpCallTimingsHolder();
+        Call call;
+        try {
+            call = newCall(client, withTimingsHolder(markShareable(request), timingsHolder));
+        } catch (IOException e) {
+            CompletableFuture<HttpResult> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+        if (callTimeoutMillis > 0) {
+            long existingTimeoutMillis = TimeUnit.NANOSECONDS.toMillis(call.timeout().timeoutNanos());
+            if (existingTimeoutMillis <= 0 || callTimeoutMillis < existingTimeoutMillis) {
+                call.timeout().timeout(callTimeoutMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        CompletableFuture<HttpResult> future = new CompletableFuture<>();
+        future.whenComplete((result, e) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        Callback callback = new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (Response autoCloseResponse = response) {
+                    HttpResult result = bufferResult(response, beginTime, timingsHolder, responseCharset);
+                    completeAsync(executor, () -> future.complete(result));
+                } catch (Exception e) {
+                    completeAsync(executor, () -> future.completeExceptionally(e));
+                }
+            }
 
-        for (Entry<String, String> enrtySet : map.entrySet()) {
-            String key = enrtySet.getKey();
-            String value = enrtySet.getValue();
-            if (CheckUtils.areNotEmpty(key, value)) {
-                str += (key + "=" + value + "&");
+            @Override
+            public void onFailure(Call call, IOException e) {
+                completeAsync(executor, () -> future.completeExceptionally(e));
+            }
+        };
+        HttpAsyncCallQueue asyncCallQueue = getClientHolder().getAsyncCallQueue();
+        if (CheckUtils.isNull(asyncCallQueue)) {
+            call.enqueue(callback);
+        } else {
+            try {
+                asyncCallQueue.submit(call, callback); // 队列满且为BLOCK方式时会阻塞当前线程
+            } catch (InterruptedIOException | RejectedExecutionException e) {
+                future.completeExceptionally(e);
             }
         }
-        return (url.indexOf("?") > -1 ? "&" : "?") + str.substring(0, str.length() - 1);
+        return future;
     }
 
-    public String httpExecute(OkHttpClient client, Request request, String... responseCharset) throws Exception {
+    /**
+     * 异步发送请求，整个请求(包括重试)不超过截止时间
+     *
+     * @param client
+     * @param request
+     * @param deadline
+     *            截止时间，可在多个请求间共用
+     * @param executor
+     *            执行future回调的线程池，为空时在okhttp的线程中执行
+     * @param responseCharset
+     * @return
+     */
+    public CompletableFuture<HttpResult> httpExecuteAsync(OkHttpClient client, Request request,
+        HttpDeadline deadline, Executor executor, String... responseCharset) {
+        return httpExecuteAsync(client, withDeadline(request, deadline), 0, executor, responseCharset);
+    }
+
+    private static void completeAsync(Executor executor, Runnable completion) {
+        if (CheckUtils.isNull(executor)) {
+            completion.run();
+        } else {
+            executor.execute(completion);
+        }
+    }
+
+    /**
+     * 把异步请求的返回报文读到内存中(只在需要打印日志时解码)，不论状态码都返回结果
+     * 
+     * @param response
+     * @param beginTime
+     * @param timingsHolder
+     * @param responseCharset
+     * @return
+     * @throws Exception
+     */
+    private HttpResult bufferResult(Response response, long beginTime, HttpCallTimingsHolder timingsHolder,
+        String... responseCharset) throws Exception {
+        HttpLogLevel logLevel = logStatus(response, beginTime);
+        HttpResult result =
+            new HttpResult(response, beginTime, timingsHolder, getClientConfig().getMaxBufferedBodySize(),
+                responseCharset).bufferBody();
+        if (result.isSuccess() && isLogEnabled(logLevel, HttpLogLevel.BODY)) {
+            log.info("responseStr========>{}", getLogPolicy().truncate(result.getBody()));
+        } else if (result.isRedirect() && isLogEnabled(logLevel, HttpLogLevel.SUMMARY)) {
+            log.info("redirectURL========>{}", result.getRedirectUrl());
+        }
+        return result;
+    }
+
+    /**
+     * 读取结果的返回报文，状态码非200时按{@link #handleError(Response, int, boolean)}处理
+     * 
+     * @param result
+     * @return
+     * @throws Exception
+     */
+    private String readResponseStr(HttpResult result) throws Exception {
+        Response response = result.getResponse();
+        if (!result.isSuccess()) {
+            return handleError(response, result.getStatusCode(), true);
+        }
+        String responseStr = result.readBodyOnce();
+        if (isLogEnabled(getLogLevel(response.request()), HttpLogLevel.BODY)) {
+            log.info("responseStr========>{}", getLogPolicy().truncate(responseStr));
+        }
+        return responseStr;
+    }
+
+    /**
+     * 读取返回报文，状态码非200时按{@link #handleError(Response, int, boolean)}处理
+     *
+     * @param response
+     * @param beginTime
+     * @param responseCharset
+     * @return
+     * @throws Exception
+     */
+    protected String readResponseStr(Response response, long beginTime, String... responseCharset)
+        throws Exception {
         String responseStr = "";
+        int statusCode = response.code();
+        HttpLogLevel logLevel = logStatus(response, beginTime);
+        if (statusCode == HttpStatus.SC_OK) {
+            checkBodySize(response.body());
+
+            // 读取内容
+            responseStr = decodeBody(response.body(), resolveCharset(response.body(), responseCharset));
+            if (isLogEnabled(logLevel, HttpLogLevel.BODY)) {
+                log.info("responseStr========>{}", getLogPolicy().truncate(responseStr));
+            }
+        } else {
+            responseStr = handleError(response, statusCode, true);
+        }
+        return responseStr;
+    }
+
+    /**
+     * 发送请求并流式处理返回报文，报文不会完整读到内存中
+     * 
+     * @param client
+     * @param request
+     * @param bodyHandler
+     *            返回报文的处理方法
+     * @return 重定向时返回null
+     * @throws Exception
+     */
+    public <T> T httpExecuteStream(OkHttpClient client, Request request, ResponseBodyHandler<T> bodyHandler)
+        throws Exception {
+        CheckUtils.checkNotNull(bodyHandler, "返回报文的处理方法不能为空");
         long beginTime = System.currentTimeMillis();
-        try (Response response = client.newCall(request).execute()) {
+        try (Response response = executeCall(client, request)) {
             int statusCode = response.code();
-            log.info("statusCode=========>{}", statusCode);
-            log.info("cost===============>{}ms", System.currentTimeMillis() - beginTime);
+            logStatus(response, beginTime);
             if (statusCode == HttpStatus.SC_OK) {
-                // 读取内容
-                responseStr = new String(response.body().string()
-                    .getBytes(DefaultValueGetter.getValue(CharsetUtils.UTF_8, responseCharset)));
-                log.info("responseStr========>{}", responseStr);
+                return bodyHandler.handle(response.body());
             } else {
-                responseStr = handleError(response, statusCode, true);
+                handleError(response, statusCode, false);
+                return null;
             }
         }
-        return responseStr;
+    }
+
+    /**
+     * 发送请求并把返回的JSON报文直接从连接读取转换为对象(按Content-Type中的charset解码，没有时为UTF-8)<br>
+     * 用{@link JSONReader}边读边解析，不会先把整个报文读成byte[]或String；单个字段值(如很长的字符串)仍会完整放在内存中
+     * 
+     * @param client
+     * @param request
+     * @param responseType
+     *            返回对象的类型
+     * @return 重定向或返回报文为空时返回null
+     * @throws Exception
+     */
+    public <T> T httpExecuteJson(OkHttpClient client, Request request, Type responseType) throws Exception {
+        CheckUtils.checkNotNull(responseType, "返回对象的类型不能为空");
+        return httpExecuteStream(client, request, body -> {
+            checkBodySize(body);
+            BufferedSource source = body.source();
+            if (source.exhausted()) {
+                return null;
+            }
+            Reader charReader = new InputStreamReader(source.inputStream(), resolveCharset(body));
+            try (JSONReader reader = new JSONReader(charReader)) {
+                return reader.<T>readObject(responseType);
+            }
+        });
+    }
+
+    /**
+     * 发送请求并把返回报文直接写入到sink(不会关闭sink)
+     * 
+     * @param client
+     * @param request
+     * @param sink
+     * @return 写入的字节数，重定向时返回0
+     * @throws Exception
+     */
+    public long httpExecuteToSink(OkHttpClient client, Request request, Sink sink) throws Exception {
+        CheckUtils.checkNotNull(sink, "输出对象不能为空");
+        Long writtenBytes = httpExecuteStream(client, request, body -> {
+            BufferedSink bufferedSink = Okio.buffer(sink);
+            long byteCount = bufferedSink.writeAll(body.source());
+            bufferedSink.emit();
+            return byteCount;
+        });
+        return DefaultValueGetter.getValue(0L, writtenBytes);
     }
 
     /**
@@ -691,27 +1519,379 @@ public abstract class OKHttpSenderBase {
      */
     public void httpGetToGetFile(OkHttpClient client, Request request, String filePath, String... responseCharset)
         throws Exception {
+        httpGetToGetFile(client, request, filePath, false, null);
+    }
+
+    /**
+     * 自定义httpClient和httpPost去发送请求获取文件流并写入到filePath对应的文件<br>
+     * 1.返回报文直接写入文件，不经过中间的byte[]缓冲<br>
+     * 2.先写入临时文件(filePath+".download")，下载完成后再重命名为filePath<br>
+     * 3.断点续传时，返回的ETag(或Last-Modified)保存在临时文件旁(filePath+".download.validator")，
+     * 续传时通过Range及If-Range头只下载剩余部分；服务端文件已变化、返回的Content-Range与临时文件不一致、
+     * 或返回416时，删除临时文件从头下载
+     * 
+     * @param client
+     * @param request
+     * @param filePath
+     * @param resume
+     *            是否断点续传，为true时下载失败会保留临时文件
+     * @param progressListener
+     *            下载进度回调，可为空
+     * @throws Exception
+     */
+    public void httpGetToGetFile(OkHttpClient client, Request request, String filePath, boolean resume,
+        DownloadProgressListener progressListener) throws Exception {
+        CheckUtils.checkNotEmpty(filePath, "文件路径不能为空");
+        File destFile = new File(filePath);
+        File tempFile = new File(filePath + DOWNLOAD_TEMP_FILE_SUFFIX);
+        File validatorFile = new File(tempFile.getPath() + DOWNLOAD_VALIDATOR_FILE_SUFFIX);
+        if (CheckUtils.isNotNull(destFile.getParentFile())) {
+            destFile.getParentFile().mkdirs(); // 保证目标文件的路径存在
+        }
+
         long beginTime = System.currentTimeMillis();
-        try (Response response = client.newCall(request).execute()) {
-            int statusCode = response.code();
-            log.info("statusCode=========>{}", statusCode);
-            log.info("cost===============>{}ms", System.currentTimeMillis() - beginTime);
-            if (statusCode == HttpStatus.SC_OK) {
-                try (InputStream is = response.body().byteStream();
-                    FileOutputStream fos = new FileOutputStream(filePath)) {
-                    byte[] buf = new byte[1024];
-                    int len = 0;
-                    while ((len = is.read(buf)) != -1) {
-                        fos.write(buf, 0, len);
-                    }
+        boolean isDownloaded = false;
+        try {
+            String validator = resume ? readValidator(tempFile, validatorFile) : null;
+            long existingBytes = CheckUtils.isNotEmpty(validator) ? tempFile.length() : 0;
+            DownloadResult result = downloadToTempFile(client, request, tempFile, validatorFile, existingBytes,
+                validator, resume, progressListener, beginTime);
+            if (DownloadResult.RESTART == result) {
+                // 临时文件与服务端的文件不一致，从头下载
+                deleteFiles(tempFile, validatorFile);
+                result = downloadToTempFile(client, request, tempFile, validatorFile, 0, null, resume,
+                    progressListener, beginTime);
+            }
+            if (DownloadResult.DONE == result) {
+                moveFile(tempFile, destFile);
+                validatorFile.delete();
+                isDownloaded = true;
+                if (isLogEnabled(getLogLevel(request), HttpLogLevel.SUMMARY)) {
                     log.info("=========>写入文件{}", filePath);
                 }
+            }
+        } finally {
+            if (!isDownloaded && !resume) {
+                deleteFiles(tempFile, validatorFile);
+            }
+        }
+    }
+
+    private enum DownloadResult {
+        /**
+         * 已写入临时文件
+         */
+        DONE,
+
+        /**
+         * 临时文件不能续传，需从头下载
+         */
+        RESTART,
+
+        /**
+         * 重定向等没有返回文件的情况
+         */
+        NONE;
+    }
+
+    private DownloadResult downloadToTempFile(OkHttpClient client, Request request, File tempFile,
+        File validatorFile, long existingBytes, String validator, boolean resume,
+        DownloadProgressListener progressListener, long beginTime) throws Exception {
+        if (existingBytes > 0) {
+            // If-Range不匹配(服务端文件已变化)时服务端会返回200和完整文件
+            request = request.newBuilder().header(HEADER_RANGE, "bytes=" + existingBytes + "-")
+                .header(HEADER_IF_RANGE, validator).build();
+        }
+        try (Response response = newCall(client, request).execute()) {
+            int statusCode = response.code();
+            logStatus(response, beginTime);
+            if (statusCode == HttpStatus.SC_PARTIAL_CONTENT && existingBytes > 0) {
+                if (!isContentRangeMatched(response, existingBytes)) {
+                    return DownloadResult.RESTART;
+                }
+                writeToFile(response.body(), tempFile, existingBytes, progressListener);
+                return DownloadResult.DONE;
+            } else if (statusCode == HttpStatus.SC_OK || statusCode == HttpStatus.SC_PARTIAL_CONTENT) {
+                // 首次下载，或服务端不支持Range、文件已变化时返回完整文件，此时重新下载
+                if (resume) {
+                    saveValidator(response, validatorFile);
+                }
+                writeToFile(response.body(), tempFile, 0, progressListener);
+                return DownloadResult.DONE;
+            } else if (statusCode == HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE && existingBytes > 0) {
+                return DownloadResult.RESTART; // 不能确定临时文件是完整的，从头下载
             } else {
                 handleError(response, statusCode, false);
+                return DownloadResult.NONE;
             }
         }
     }
 
+    /**
+     * 读取临时文件的校验值
+     * 
+     * @return 临时文件或校验值不存在时返回null(不能续传)
+     */
+    private static String readValidator(File tempFile, File validatorFile) throws IOException {
+        if (!tempFile.isFile() || tempFile.length() == 0 || !validatorFile.isFile()) {
+            return null;
+        }
+        return new String(Files.readAllBytes(validatorFile.toPath()), CharsetUtils.utf8()).trim();
+    }
+
+    /**
+     * 保存用于If-Range的校验值：优先用强ETag(弱ETag不能用于If-Range)，其次是Last-Modified，都没有时不能续传
+     */
+    private static void saveValidator(Response response, File validatorFile) throws IOException {
+        String validator = response.header(HEADER_ETAG);
+        if (CheckUtils.isEmpty(validator) || validator.startsWith("W/")) {
+            validator = response.header(HEADER_LAST_MODIFIED);
+        }
+        if (CheckUtils.isEmpty(validator)) {
+            validatorFile.delete();
+        } else {
+            Files.write(validatorFile.toPath(), validator.getBytes(CharsetUtils.utf8()));
+        }
+    }
+
+    /**
+     * 检查返回的Content-Range(如bytes 100-999/1000)是否从临时文件的末尾开始，且到文件结尾
+     */
+    private static boolean isContentRangeMatched(Response response, long existingBytes) {
+        String contentRange = response.header(HEADER_CONTENT_RANGE);
+        if (CheckUtils.isEmpty(contentRange) || !contentRange.startsWith("bytes ")) {
+            return false;
+        }
+        try {
+            String range = contentRange.substring("bytes ".length()).trim();
+            int dashIndex = range.indexOf('-');
+            int slashIndex = range.indexOf('/');
+            if (dashIndex < 0 || slashIndex < dashIndex) {
+                return false;
+            }
+            long start = Long.parseLong(range.substring(0, dashIndex).trim());
+            long end = Long.parseLong(range.substring(dashIndex + 1, slashIndex).trim());
+            String total = range.substring(slashIndex + 1).trim();
+            long contentLength = response.body().contentLength();
+            return start == existingBytes && (contentLength < 0 || end - start + 1 == contentLength)
+                && ("*".equals(total) || end + 1 == Long.parseLong(total));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static void deleteFiles(File... files) {
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    private void writeToFile(ResponseBody body, File file, long existingBytes,
+        DownloadProgressListener progressListener) throws IOException {
+        BufferedSource source = body.source();
+        try (BufferedSink sink = Okio.buffer(existingBytes > 0 ? Okio.appendingSink(file) : Okio.sink(file))) {
+            if (CheckUtils.isNull(progressListener)) {
+                // 直接在source和sink之间转移okio的segment
+                sink.writeAll(source);
+            } else {
+                long contentLength = body.contentLength();
+                long totalBytes = contentLength < 0 ? -1 : existingBytes + contentLength;
+                long downloadedBytes = existingBytes;
+                for (long readBytes; (readBytes = source.read(sink.getBuffer(), DOWNLOAD_SEGMENT_SIZE)) != -1;) {
+                    sink.emitCompleteSegments();
+                    downloadedBytes += readBytes;
+                    progressListener.onProgress(downloadedBytes, totalBytes);
+                }
+            }
+        }
+    }
+
+    private void moveFile(File srcFile, File destFile) throws IOException {
+        try {
+            Files.move(srcFile.toPath(), destFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(srcFile.toPath(), destFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 获取返回报文的字符集：优先使用调用方指定的字符集，其次是Content-Type中的charset，都没有时为UTF-8
+     * 
+     * @param body
+     * @param responseCharset
+     * @return
+     */
+    protected static Charset resolveCharset(ResponseBody body, String... responseCharset) {
+        if (CheckUtils.isNotEmpty(responseCharset) && CheckUtils.isNotEmpty(responseCharset[0])) {
+            return CharsetUtils.forName(responseCharset[0]);
+        }
+        MediaType contentType = body.contentType();
+        Charset charset = CheckUtils.isNotNull(contentType) ? contentType.charset() : null;
+        return DefaultValueGetter.getValue(CharsetUtils.utf8(), charset);
+    }
+
+    /**
+     * 按字符集边读边解码返回报文，报文字节只解码一次，不会生成完整报文的中间byte[]
+     * 
+     * @param body
+     * @param charset
+     * @return
+     * @throws IOException
+     */
+    protected static String decodeBody(ResponseBody body, Charset charset) throws IOException {
+        long contentLength = body.contentLength();
+        StringBuilder bodyStr = new StringBuilder(
+            contentLength > 0 ? (int)Math.min(contentLength, Integer.MAX_VALUE - 8) : DECODE_BUFFER_SIZE);
+        try (Reader reader = new InputStreamReader(body.source().inputStream(), charset)) {
+            char[] buffer = new char[DECODE_BUFFER_SIZE];
+            for (int len; (len = reader.read(buffer)) != -1;) {
+                bodyStr.append(buffer, 0, len);
+            }
+        }
+        if (bodyStr.length() > 0 && bodyStr.charAt(0) == '\uFEFF') {
+            bodyStr.deleteCharAt(0); // 去掉BOM
+        }
+        return bodyStr.toString();
+    }
+
+    /**
+     * 检查报文大小，避免把超大的报文完整读到内存中
+     * 
+     * @param body
+     * @throws IOException
+     */
+    private void checkBodySize(ResponseBody body) throws IOException {
+        checkBodySize(body, getClientConfig().getMaxBufferedBodySize());
+    }
+
+    static void checkBodySize(ResponseBody body, long maxBufferedBodySize) throws IOException {
+        if (maxBufferedBodySize <= 0) {
+            return;
+        }
+
+        // 没有Content-Length时，最多预读maxBufferedBodySize+1个字节来判断
+        long contentLength = body.contentLength();
+        if (contentLength > maxBufferedBodySize
+            || (contentLength < 0 && body.source().request(maxBufferedBodySize + 1))) {
+            throw new IllegalStateException("返回报文超过" + maxBufferedBodySize + "字节，请使用流式处理的方法");
+        }
+    }
+
+    /**
+     * 按请求的日志级别打印状态码及耗时
+     * 
+     * @param response
+     * @param beginTime
+     * @return 该请求的日志级别
+     */
+    private HttpLogLevel logStatus(Response response, long beginTime) {
+        HttpLogLevel logLevel = getLogLevel(response.request());
+        if (isLogEnabled(logLevel, HttpLogLevel.SUMMARY)) {
+            log.info("statusCode=========>{}", response.code());
+            log.info("cost===============>{}ms", System.currentTimeMillis() - beginTime);
+        }
+        return logLevel;
+    }
+
+    /**
+     * 获取请求创建时确定的日志级别，不是通过本类创建的请求则重新采样
+     * 
+     * @param request
+     * @return
+     */
+    private HttpLogLevel getLogLevel(Request request) {
+        HttpLogLevel logLevel = request.tag(HttpLogLevel.class);
+        return CheckUtils.isNotNull(logLevel) ? logLevel : getLogPolicy().sampleLevel();
+    }
+
+    private static boolean isLogEnabled(HttpLogLevel logLevel, HttpLogLevel requiredLevel) {
+        return logLevel.isEnabled(requiredLevel) && log.isInfoEnabled();
+    }
+
+    protected HttpLogPolicy getLogPolicy() {
+        return getClientConfig().getLogPolicy();
+    }
+
+    /**
+     * 获取当前连接池及dispatcher队列的状态(http与https客户端共用连接池及dispatcher)
+     * 
+     * @return
+     */
+    public HttpClientStats getClientStats() {
+        return HttpClientStats.of(getClient());
+    }
+
+    /**
+     * 获取某个host熔断器的当前状态
+     * 
+     * @param host
+     * @return 没有启用熔断或该host还没有请求时返回null
+     */
+    public HttpCircuitBreaker.State getCircuitBreakerState(String host) {
+        HttpResilienceInterceptor resilienceInterceptor = getClientHolder().getResilienceInterceptor();
+        return CheckUtils.isNotNull(resilienceInterceptor) ? resilienceInterceptor.getCircuitBreakerState(host)
+            : null;
+    }
+
+    /**
+     * 获取GET请求返回报文缓存的统计
+     * 
+     * @return 没有启用缓存时返回null
+     */
+    public HttpCacheStats getResponseCacheStats() {
+        HttpCacheInterceptor cacheInterceptor = getClientHolder().getCacheInterceptor();
+        return CheckUtils.isNotNull(cacheInterceptor) ? cacheInterceptor.getStats() : null;
+    }
+
+    /**
+     * 获取合并相同并发请求的统计
+     * 
+     * @return 没有启用合并时返回null
+     */
+    public HttpSingleFlightStats getSingleFlightStats() {
+        HttpSingleFlightInterceptor singleFlightInterceptor = getClientHolder().getSingleFlightInterceptor();
+        return CheckUtils.isNotNull(singleFlightInterceptor) ? singleFlightInterceptor.getStats() : null;
+    }
+
+    /**
+     * 获取域名解析缓存的统计
+     * 
+     * @return 配置的Dns不是{@link HttpCachingDns}时返回null
+     */
+    public HttpDnsStats getDnsStats() {
+        Dns dns = getClientConfig().getDns();
+        return dns instanceof HttpCachingDns ? ((HttpCachingDns)dns).getStats() : null;
+    }
+
+    /**
+     * 清空GET请求返回报文的内存缓存(磁盘缓存不受影响)
+     */
+    public void clearResponseCache() {
+        HttpCacheInterceptor cacheInterceptor = getClientHolder().getCacheInterceptor();
+        if (CheckUtils.isNotNull(cacheInterceptor)) {
+            cacheInterceptor.clear();
+        }
+    }
+
+    /**
+     * 关闭当前sender使用的独立客户端(取消所有请求并关闭连接)，使用同一配置的其它sender也会受影响<br>
+     * 独立客户端不会自动回收，配置不再使用时必须调用
+     */
+    public void shutdown() {
+        CheckUtils.checkNotTrue(CheckUtils.isNull(clientHolder), "默认客户端不能关闭");
+        clientHolder.shutdown();
+    }
+
+    /**
+     * 当前sender使用的客户端配置
+     * 
+     * @return
+     */
+    protected OKHttpClientConfig getClientConfig() {
+        return getClientHolder().getConfig();
+    }
+
     protected String handleError(Response response, int statusCode, boolean handleRedirect) throws Exception {
         String responseStr = "";
         switch (statusCode) {
@@ -726,7 +1906,9 @@ public abstract class OKHttpSenderBase {
                     } catch (Exception e) {
                         throw new RuntimeException("获取重定向地址失败", e);
                     }
-                    log.info("redirectURL========>{}", responseStr);
+                    if (isLogEnabled(getLogLevel(response.request()), HttpLogLevel.SUMMARY)) {
+                        log.info("redirectURL========>{}", responseStr);
+                    }
                 }
                 break;
             case HttpStatus.SC_NOT_FOUND:
@@ -759,7 +1941,7 @@ public abstract class OKHttpSenderBase {
         }
     }
 
-    private static class AnyHostnameVerifier implements HostnameVerifier {
+    static class AnyHostnameVerifier implements HostnameVerifier {
         @Override
         public boolean verify(String hostname, SSLSession session) {
             // return hostname.equals(session.getPeerHost());
@@ -767,7 +1949,7 @@ public abstract class OKHttpSenderBase {
         }
     }
 
-    private static class AnyTrustManager implements X509TrustManager {
+    static class AnyTrustManager implements X509TrustManager {
         @Override
         public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {}
 
@@ -793,22 +1975,31 @@ public abstract class OKHttpSenderBase {
         private OKHttpSenderBase thisSender;
         private Long beginTime;
         private SimpleAsyncCallback simpleAsyncCallback;
+
+        /**
+         * 返回报文的字符集，为空时按Content-Type解码
+         */
         private String responseCharset;
 
         @Override
         public void onResponse(Call call, Response response) throws IOException {
             int statusCode = response.code();
             try {
-                String responseStr = "";
-                log.info("statusCode=========>{}", statusCode);
-                log.info("cost===============>{}ms", System.currentTimeMillis() - beginTime);
-                if (statusCode == HttpStatus.SC_OK) {
-                    // 读取内容
-                    responseStr = new String(response.body().string()
-                        .getBytes(DefaultValueGetter.getValue(CharsetUtils.UTF_8, responseCharset)));
-                    log.info("responseStr========>{}", responseStr);
+                HttpResult result = thisSender.bufferResult(response, beginTime, null, responseCharset);
+                if (CheckUtils.isNotNull(simpleAsyncCallback)) {
+                    simpleAsyncCallback.onResult(result);
+                }
+
+                String responseStr;
+                if (result.isSuccess()) {
+                    responseStr = result.getBody();
+                } else if (result.isRedirect()) {
+                    responseStr = result.getRedirectUrl();
                 } else {
-                    responseStr = thisSender.handleError(response, statusCode, true);
+                    // 报文已读到内存中，用缓存的报文重新组装返回对象后按原方式处理错误
+                    responseStr = thisSender.handleError(response.newBuilder()
+                        .body(ResponseBody.create(result.getBodyByteString(), response.body().contentType())).build(),
+                        statusCode, true);
                 }
                 onResponse(true, statusCode, responseStr);
             } catch (Exception e) {
@@ -50,4 +50,11 @@ public interface SimpleAsyncCallback {
      *            返回报文
      */
     void onResponse(boolean isSuccess, int statusCode, String responseStr);
+
+    /**
+     * 收到返回时(不论状态码)先调用该方法，报文已读到内存中，可获取header、错误报文及耗时，默认不处理
+     * 
+     * @param result
+     */
+    default void onResult(HttpResult result) {}
 }
\ No newline at end of file
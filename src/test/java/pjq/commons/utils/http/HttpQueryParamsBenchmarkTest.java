@@ -0,0 +1,91 @@
+package pjq.commons.utils.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 原来的参数编码方式(split后放入HashMap，再用+=拼接URLEncoder的结果)与{@link HttpQueryParams}的耗时对比<br>
+ * 只断言两者的编码结果一致(参数没有重复时)，耗时与机器有关，只打印出来
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public class HttpQueryParamsBenchmarkTest {
+    private static final int WARM_UP_ROUNDS = 20000;
+    private static final int ROUNDS = 100000;
+    private static final String QUERY =
+        "appId=wx1234567890&timestamp=1760572800&nonce=5K8264ILTKCH16CQ2502SI8ZNMTM67VS&signType=RSA2"
+            + "&bizContent={\"out_trade_no\":\"20261016010101\",\"total_amount\":\"88.88\"}&subject=测试订单"
+            + "&notifyUrl=https://example.com/notify?a=1&remark=中文 备注";
+
+    /**
+     * 原来createHttpGet中的处理
+     */
+    private static String legacyEncode(String paramData) throws Exception {
+        Map<String, String> paramMap = new HashMap<>();
+        String[] params = paramData.split("&");
+        for (int i = 0; i < params.length; i++) {
+            int tmpIndex = params[i].indexOf("=");
+            if (tmpIndex > 0) {
+                String key = params[i].substring(0, tmpIndex);
+                String value = params[i].substring(tmpIndex + 1);
+                if (!key.isEmpty() && !value.isEmpty()) {
+                    paramMap.put(key, value);
+                }
+            }
+        }
+        String paramAfterUrl = "";
+        for (Entry<String, String> entry : paramMap.entrySet()) {
+            paramAfterUrl += URLEncoder.encode(entry.getKey(), "UTF-8") + "="
+                + URLEncoder.encode(entry.getValue(), "UTF-8") + "&";
+        }
+        return paramAfterUrl.substring(0, paramAfterUrl.length() - 1);
+    }
+
+    private static String newEncode(String paramData) {
+        return HttpQueryParams.parse(paramData).encode(StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> toSortedMap(String encoded) {
+        Map<String, String> map = new TreeMap<>();
+        for (String param : encoded.split("&")) {
+            int tmpIndex = param.indexOf('=');
+            map.put(param.substring(0, tmpIndex), param.substring(tmpIndex + 1));
+        }
+        return map;
+    }
+
+    @Test
+    public void compareWithLegacyEncoding() throws Exception {
+        // HashMap会打乱顺序，按参数比较
+        assertEquals(toSortedMap(legacyEncode(QUERY)), toSortedMap(newEncode(QUERY)));
+
+        int sink = 0;
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            sink += legacyEncode(QUERY).length() + newEncode(QUERY).length();
+        }
+
+        long beginTime = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            sink += legacyEncode(QUERY).length();
+        }
+        long legacyNanos = System.nanoTime() - beginTime;
+
+        beginTime = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            sink += newEncode(QUERY).length();
+        }
+        long newNanos = System.nanoTime() - beginTime;
+
+        System.out.printf("split/HashMap/URLEncoder  %d ns/op%n", legacyNanos / ROUNDS);
+        System.out.printf("HttpQueryParams           %d ns/op (%d)%n", newNanos / ROUNDS, sink);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package pjq.commons.utils.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link HttpQueryParams}的解析及编码
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public class HttpQueryParamsTest {
+    @Test
+    public void parseKeepsOrderAndDuplicates() {
+        HttpQueryParams params = HttpQueryParams.parse("b=2&a=1&b=3");
+        assertEquals(3, params.size());
+        assertEquals("b", params.name(0));
+        assertEquals("2", params.value(0));
+        assertEquals("a", params.name(1));
+        assertEquals("b", params.name(2));
+        assertEquals("3", params.value(2));
+
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put("b", "3");
+        expected.put("a", "1");
+        assertEquals(expected, params.toMap());
+    }
+
+    @Test
+    public void parseDropsSegmentsWithoutEquals() {
+        HttpQueryParams params = HttpQueryParams.parse("a=1&flag&b=2");
+        assertEquals("a=1&b=2", params.toString());
+
+        params = HttpQueryParams.parse("flag&a=1");
+        assertEquals("a=1", params.toString());
+    }
+
+    @Test
+    public void parseDropsEmptyNamesAndValues() {
+        assertEquals("b=2", HttpQueryParams.parse("=1&a=&b=2&&").toString());
+        assertTrue(HttpQueryParams.parse("").isEmpty());
+        assertTrue(HttpQueryParams.parse(null).isEmpty());
+    }
+
+    @Test
+    public void parseKeepsEqualsInValue() {
+        HttpQueryParams params = HttpQueryParams.parse("sign=a=b&c=1");
+        assertEquals("sign", params.name(0));
+        assertEquals("a=b", params.value(0));
+        assertEquals("1", params.value(1));
+    }
+
+    @Test
+    public void ofMapKeepsOrderAndSkipsEmpty() {
+        Map<String, String> paramMap = new LinkedHashMap<>();
+        paramMap.put("z", "1");
+        paramMap.put("empty", "");
+        paramMap.put("a", "2");
+        assertEquals("z=1&a=2", HttpQueryParams.of(paramMap).toString());
+    }
+
+    @Test
+    public void encodeMatchesUrlEncoder() throws Exception {
+        String name = "名 称";
+        String value = "a+b c&d=e/中文*-._~!";
+        HttpQueryParams params = HttpQueryParams.create().add(name, value).add("k", "v");
+        for (Charset charset : new Charset[] {StandardCharsets.UTF_8, Charset.forName("GBK")}) {
+            String expected = URLEncoder.encode(name, charset.name()) + "=" + URLEncoder.encode(value, charset.name())
+                + "&k=v";
+            assertEquals(expected, params.encode(charset));
+        }
+    }
+
+    @Test
+    public void encodeToAppendsToBuilder() {
+        StringBuilder sb = new StringBuilder("http://localhost/path?");
+        HttpQueryParams.create().add("a", "1 2").encodeTo(sb, StandardCharsets.UTF_8);
+        assertEquals("http://localhost/path?a=1+2", sb.toString());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+package pjq.commons.utils.http.okhttp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import okhttp3.Protocol;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * 并发请求时HTTP/1.1与h2c(HTTP/2多路复用)的每秒请求数及连接数对比，使用mockwebserver模拟服务端<br>
+ * 只断言连接数，每秒请求数与机器有关，只打印出来
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public class H2cBenchmarkTest {
+    private static final int CONCURRENCY = 20;
+    private static final int WARM_UP_REQUESTS = 40;
+    private static final int REQUESTS = 400;
+    private static final long SERVER_DELAY_MILLIS = 5;
+
+    /**
+     * 分批并发发送请求
+     *
+     * @return 每秒请求数及使用的连接数
+     */
+    private static double[] run(Protocol serverProtocol, HttpProtocolMode protocolMode) throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.setProtocols(Protocol.H2_PRIOR_KNOWLEDGE == serverProtocol
+                ? Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE)
+                : Collections.singletonList(Protocol.HTTP_1_1));
+            server.setDispatcher(new Dispatcher() {
+                @Override
+                public MockResponse dispatch(RecordedRequest request) {
+                    return new MockResponse().setBody("ok").setHeadersDelay(SERVER_DELAY_MILLIS,
+                        TimeUnit.MILLISECONDS);
+                }
+            });
+            server.start();
+            String url = server.url("/").toString();
+
+            OKHttpSender sender = OKHttpSender.create(OKHttpClientConfig.builder().protocolMode(protocolMode)
+                .maxRequestsPerHost(CONCURRENCY).logPolicy(HttpLogPolicy.builder().level(HttpLogLevel.NONE).build())
+                .build());
+            try {
+                send(sender, url, WARM_UP_REQUESTS);
+                long beginTime = System.nanoTime();
+                send(sender, url, REQUESTS);
+                double throughput = REQUESTS * 1e9 / (System.nanoTime() - beginTime);
+
+                // 每个连接的第一个请求的序号为0
+                int connections = 0;
+                for (int i = 0, count = server.getRequestCount(); i < count; i++) {
+                    if (0 == server.takeRequest().getSequenceNumber()) {
+                        connections++;
+                    }
+                }
+                return new double[] {throughput, connections};
+            } finally {
+                sender.shutdown();
+            }
+        }
+    }
+
+    private static void send(OKHttpSender sender, String url, int requests) throws Exception {
+        for (int i = 0; i < requests; i += CONCURRENCY) {
+            List<CompletableFuture<HttpResult>> futures = new ArrayList<>(CONCURRENCY);
+            for (int j = 0; j < CONCURRENCY; j++) {
+                futures.add(sender.httpGetAsync(url));
+            }
+            for (CompletableFuture<HttpResult> future : futures) {
+                try (HttpResult result = future.get(10, TimeUnit.SECONDS)) {
+                    assertEquals("ok", result.getBody());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void h2cMultiplexesOneConnection() throws Exception {
+        double[] http11 = run(Protocol.HTTP_1_1, HttpProtocolMode.HTTP_1_1);
+        double[] h2c = run(Protocol.H2_PRIOR_KNOWLEDGE, HttpProtocolMode.H2C);
+
+        System.out.printf("HTTP/1.1  %.0f req/s, %.0f connections%n", http11[0], http11[1]);
+        System.out.printf("h2c       %.0f req/s, %.0f connections%n", h2c[0], h2c[1]);
+        assertTrue(http11[1] > 1, "HTTP/1.1只使用了" + (int)http11[1] + "个连接");
+        assertEquals(1, (int)h2c[1]);
+    }
+}
\ No newline at end of file
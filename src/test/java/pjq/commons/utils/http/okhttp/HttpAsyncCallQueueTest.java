@@ -0,0 +1,231 @@
+package pjq.commons.utils.http.okhttp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.Test;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.Timeout;
+
+/**
+ * {@link HttpAsyncCallQueue}各种队列满时的处理方式
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public class HttpAsyncCallQueueTest {
+    @Test
+    public void queuesBeyondMaxInFlightAndStartsInOrder() throws Exception {
+        HttpAsyncCallQueue queue = new HttpAsyncCallQueue(2, 1, HttpQueueFullPolicy.FAIL_FAST);
+        FakeCall a = new FakeCall();
+        FakeCall b = new FakeCall();
+        FakeCall c = new FakeCall();
+        queue.submit(a, new RecordingCallback());
+        queue.submit(b, new RecordingCallback());
+        queue.submit(c, new RecordingCallback());
+        assertTrue(a.isEnqueued());
+        assertFalse(b.isEnqueued());
+        assertEquals(2, queue.getStats().getQueueDepth());
+        assertEquals(1, queue.getStats().getInFlightCount());
+
+        a.complete();
+        assertTrue(b.isEnqueued());
+        assertFalse(c.isEnqueued());
+        b.complete();
+        assertTrue(c.isEnqueued());
+        c.complete();
+        assertEquals(0, queue.getStats().getQueueDepth());
+        assertEquals(0, queue.getStats().getInFlightCount());
+    }
+
+    @Test
+    public void failFastRejectsWhenFull() throws Exception {
+        HttpAsyncCallQueue queue = new HttpAsyncCallQueue(1, 1, HttpQueueFullPolicy.FAIL_FAST);
+        queue.submit(new FakeCall(), new RecordingCallback());
+        queue.submit(new FakeCall(), new RecordingCallback());
+        assertThrows(RejectedExecutionException.class, () -> queue.submit(new FakeCall(), new RecordingCallback()));
+        assertEquals(1, queue.getStats().getRejectedCount());
+    }
+
+    @Test
+    public void dropOldestFailsOldestQueuedCall() throws Exception {
+        HttpAsyncCallQueue queue = new HttpAsyncCallQueue(1, 1, HttpQueueFullPolicy.DROP_OLDEST);
+        FakeCall a = new FakeCall();
+        FakeCall b = new FakeCall();
+        FakeCall c = new FakeCall();
+        RecordingCallback bCallback = new RecordingCallback();
+        queue.submit(a, new RecordingCallback());
+        queue.submit(b, bCallback);
+        queue.submit(c, new RecordingCallback());
+        assertNotNull(bCallback.failure);
+        assertEquals(1, queue.getStats().getDroppedCount());
+
+        a.complete();
+        assertFalse(b.isEnqueued());
+        assertTrue(c.isEnqueued());
+    }
+
+    @Test
+    public void callerRunsExecutesInSubmittingThread() throws Exception {
+        HttpAsyncCallQueue queue = new HttpAsyncCallQueue(1, 1, HttpQueueFullPolicy.CALLER_RUNS);
+        FakeCall c = new FakeCall();
+        RecordingCallback cCallback = new RecordingCallback();
+        queue.submit(new FakeCall(), new RecordingCallback());
+        queue.submit(new FakeCall(), new RecordingCallback());
+        queue.submit(c, cCallback);
+        assertTrue(c.isExecutedInCaller());
+        assertFalse(c.isEnqueued());
+        assertNotNull(cCallback.response);
+        assertSame(Thread.currentThread(), cCallback.thread);
+        assertEquals(1, queue.getStats().getCallerRunsCount());
+    }
+
+    @Test
+    public void blockWaitsForSpace() throws Exception {
+        HttpAsyncCallQueue queue = new HttpAsyncCallQueue(1, 1, HttpQueueFullPolicy.BLOCK);
+        FakeCall a = new FakeCall();
+        FakeCall b = new FakeCall();
+        queue.submit(a, new RecordingCallback());
+        queue.submit(b, new RecordingCallback());
+
+        Thread submitter = new Thread(() -> {
+            try {
+                queue.submit(new FakeCall(), new RecordingCallback());
+            } catch (InterruptedIOException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        submitter.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (submitter.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(Thread.State.WAITING, submitter.getState());
+
+        a.complete(); // b开始执行，腾出队列空位
+        submitter.join(5000);
+        assertFalse(submitter.isAlive());
+        assertTrue(b.isEnqueued());
+        assertEquals(1, queue.getStats().getQueueDepth());
+    }
+
+    @Test
+    public void blockFallsBackToCallerRunsInsideCallback() {
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            HttpAsyncCallQueue queue = new HttpAsyncCallQueue(1, 1, HttpQueueFullPolicy.BLOCK);
+            FakeCall a = new FakeCall();
+            FakeCall d = new FakeCall();
+            queue.submit(a, new RecordingCallback() {
+                @Override
+                public void onResponse(Call call, Response response) throws IOException {
+                    queue.submit(d, new RecordingCallback()); // 队列已满，在回调中等待会死锁
+                }
+            });
+            queue.submit(new FakeCall(), new RecordingCallback());
+
+            a.complete();
+            assertTrue(d.isExecutedInCaller());
+            assertEquals(1, queue.getStats().getCallerRunsCount());
+        });
+    }
+
+    private static class RecordingCallback implements Callback {
+        private volatile Response response;
+        private volatile IOException failure;
+        private volatile Thread thread;
+
+        @Override
+        public void onResponse(Call call, Response response) throws IOException {
+            this.response = response;
+            this.thread = Thread.currentThread();
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            this.failure = e;
+            this.thread = Thread.currentThread();
+        }
+    }
+
+    /**
+     * 不发送请求的Call，enqueue后由测试调用{@link #complete()}结束
+     */
+    private static class FakeCall implements Call {
+        private final Request request = new Request.Builder().url("http://localhost/").build();
+        private volatile Callback callback;
+        private volatile boolean executedInCaller;
+        private volatile boolean canceled;
+
+        boolean isEnqueued() {
+            return callback != null;
+        }
+
+        boolean isExecutedInCaller() {
+            return executedInCaller;
+        }
+
+        void complete() throws IOException {
+            callback.onResponse(this, response());
+        }
+
+        private Response response() {
+            return new Response.Builder().request(request).protocol(Protocol.HTTP_1_1).code(200).message("OK").build();
+        }
+
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @Override
+        public Response execute() {
+            executedInCaller = true;
+            return response();
+        }
+
+        @Override
+        public void enqueue(Callback responseCallback) {
+            callback = responseCallback;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executedInCaller || isEnqueued();
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @Override
+        public Timeout timeout() {
+            return Timeout.NONE;
+        }
+
+        @Override
+        public Call clone() {
+            return new FakeCall();
+        }
+    }
+}
\ No newline at end of file
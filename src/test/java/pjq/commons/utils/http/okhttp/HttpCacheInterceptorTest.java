@@ -0,0 +1,88 @@
+package pjq.commons.utils.http.okhttp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * {@link HttpCacheInterceptor}对Vary的处理，使用JDK自带的HttpServer模拟服务端
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public class HttpCacheInterceptorTest {
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private HttpServer server;
+    private String url;
+    private OKHttpSender sender;
+
+    @BeforeEach
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort();
+        sender = OKHttpSender.create(OKHttpClientConfig.builder()
+            .responseCachePolicy(HttpResponseCachePolicy.builder().build())
+            .logPolicy(HttpLogPolicy.builder().level(HttpLogLevel.NONE).build()).build());
+    }
+
+    @AfterEach
+    public void stop() {
+        sender.shutdown();
+        server.stop(0);
+    }
+
+    /**
+     * 返回请求的Accept-Language，/any返回Vary: *
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        String language = exchange.getRequestHeaders().getFirst("Accept-Language");
+        byte[] body = String.valueOf(language).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Cache-Control", "max-age=60");
+        exchange.getResponseHeaders().set("Vary",
+            exchange.getRequestURI().getPath().startsWith("/any") ? "*" : "Accept-Encoding, Accept-Language");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private String get(String path, String language) throws Exception {
+        return sender.httpExecute(sender.createCommonClient(url),
+            sender.createHttpGet(url + path, Collections.singletonMap("Accept-Language", language)));
+    }
+
+    @Test
+    public void varyHeaderValuesMustMatch() throws Exception {
+        assertEquals("en", get("/vary", "en"));
+        assertEquals("en", get("/vary", "en"));
+        assertEquals(1, requestCount.get());
+
+        assertEquals("fr", get("/vary", "fr"));
+        assertEquals(2, requestCount.get());
+        assertEquals("fr", get("/vary", "fr"));
+        assertEquals(2, requestCount.get());
+        assertEquals(2, sender.getResponseCacheStats().getHitCount());
+    }
+
+    @Test
+    public void varyStarIsNotCached() throws Exception {
+        assertEquals("en", get("/any", "en"));
+        assertEquals("en", get("/any", "en"));
+        assertEquals(2, requestCount.get());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,202 @@
+package pjq.commons.utils.http.okhttp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import okhttp3.Dns;
+
+/**
+ * {@link HttpCachingDns}的缓存、过期结果、解析失败及地址交替排列
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public class HttpCachingDnsTest {
+    private static final String HOST = "api.example.com";
+
+    private static InetAddress address(String ip) throws UnknownHostException {
+        return InetAddress.getByName(ip); // IP字面量不会实际解析
+    }
+
+    private static HttpCachingDns newCachingDns(FakeDns delegate, long ttlMillis, long staleMillis) {
+        return new HttpCachingDns(
+            HttpDnsPolicy.builder().delegate(delegate).ttlMillis(ttlMillis).staleMillis(staleMillis).build());
+    }
+
+    private static void awaitLookups(FakeDns delegate, int lookupCount) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (delegate.lookupCount.get() < lookupCount && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(lookupCount, delegate.lookupCount.get());
+    }
+
+    @Test
+    public void cachesWithinTtl() throws Exception {
+        FakeDns delegate = new FakeDns(address("10.0.0.1"));
+        HttpCachingDns dns = newCachingDns(delegate, 60000, 0);
+        assertEquals(delegate.addresses, dns.lookup(HOST));
+        assertEquals(delegate.addresses, dns.lookup(HOST));
+        assertEquals(1, delegate.lookupCount.get());
+        assertEquals(1, dns.getStats().getHitCount());
+        assertEquals(1, dns.getStats().getMissCount());
+    }
+
+    @Test
+    public void servesStaleEntryAndRefreshesInBackground() throws Exception {
+        List<InetAddress> oldAddresses = Collections.singletonList(address("10.0.0.1"));
+        FakeDns delegate = new FakeDns(oldAddresses.get(0));
+        HttpCachingDns dns = newCachingDns(delegate, 20, 60000);
+        dns.lookup(HOST);
+        Thread.sleep(50);
+
+        delegate.addresses = Collections.singletonList(address("10.0.0.2"));
+        assertEquals(oldAddresses, dns.lookup(HOST));
+        assertEquals(1, dns.getStats().getStaleHitCount());
+
+        awaitLookups(delegate, 2);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!delegate.addresses.equals(dns.lookup(HOST)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(delegate.addresses, dns.lookup(HOST));
+    }
+
+    @Test
+    public void keepsStaleEntryWhenRefreshFails() throws Exception {
+        FakeDns delegate = new FakeDns(address("10.0.0.1"));
+        List<InetAddress> oldAddresses = delegate.addresses;
+        HttpCachingDns dns = newCachingDns(delegate, 20, 60000);
+        dns.lookup(HOST);
+        Thread.sleep(50);
+
+        delegate.failure = new UnknownHostException(HOST);
+        assertEquals(oldAddresses, dns.lookup(HOST));
+        awaitLookups(delegate, 2);
+        Thread.sleep(50); // 等待后台任务结束
+        assertEquals(oldAddresses, dns.lookup(HOST));
+    }
+
+    @Test
+    public void doesNotServeEntryPastStaleWindow() throws Exception {
+        FakeDns delegate = new FakeDns(address("10.0.0.1"));
+        HttpCachingDns dns = newCachingDns(delegate, 20, 20);
+        dns.lookup(HOST);
+        Thread.sleep(100);
+
+        delegate.failure = new UnknownHostException(HOST);
+        assertThrows(UnknownHostException.class, () -> dns.lookup(HOST));
+    }
+
+    @Test
+    public void doesNotCacheFailures() throws Exception {
+        FakeDns delegate = new FakeDns(address("10.0.0.1"));
+        delegate.failure = new UnknownHostException(HOST);
+        HttpCachingDns dns = newCachingDns(delegate, 60000, 0);
+        assertThrows(UnknownHostException.class, () -> dns.lookup(HOST));
+
+        delegate.failure = null;
+        assertEquals(delegate.addresses, dns.lookup(HOST));
+        assertEquals(2, delegate.lookupCount.get());
+    }
+
+    @Test
+    public void resolvesConcurrentMissesOnce() throws Exception {
+        FakeDns delegate = new FakeDns(address("10.0.0.1"));
+        delegate.gate = new CountDownLatch(1);
+        HttpCachingDns dns = newCachingDns(delegate, 60000, 0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<InetAddress>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> dns.lookup(HOST)));
+            }
+            awaitLookups(delegate, 1);
+            Thread.sleep(50); // 让其它线程都进入等待
+            delegate.gate.countDown();
+            for (Future<List<InetAddress>> future : futures) {
+                assertEquals(delegate.addresses, future.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, delegate.lookupCount.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void staticHostsSkipResolving() throws Exception {
+        FakeDns delegate = new FakeDns(address("10.0.0.1"));
+        List<InetAddress> staticAddresses = Collections.singletonList(address("192.168.0.1"));
+        HttpCachingDns dns = new HttpCachingDns(HttpDnsPolicy.builder().delegate(delegate)
+            .staticHosts(Collections.singletonMap(HOST, staticAddresses)).build());
+        assertSame(staticAddresses, dns.lookup(HOST));
+        assertEquals(0, delegate.lookupCount.get());
+        assertEquals(1, dns.getStats().getStaticHitCount());
+    }
+
+    @Test
+    public void interleavesAddressFamilies() throws Exception {
+        InetAddress v4a = address("10.0.0.1");
+        InetAddress v4b = address("10.0.0.2");
+        InetAddress v4c = address("10.0.0.3");
+        InetAddress v6a = address("2001:db8::1");
+        InetAddress v6b = address("2001:db8::2");
+        assertEquals(Arrays.asList(v4a, v6a, v4b, v6b, v4c),
+            HttpCachingDns.interleave(Arrays.asList(v4a, v4b, v4c, v6a, v6b)));
+        assertEquals(Arrays.asList(v6a, v4a, v6b, v4b),
+            HttpCachingDns.interleave(Arrays.asList(v6a, v6b, v4a, v4b)));
+    }
+
+    @Test
+    public void keepsOrderForSingleAddressFamily() throws Exception {
+        List<InetAddress> ipv4Addresses = Arrays.asList(address("10.0.0.2"), address("10.0.0.1"));
+        assertSame(ipv4Addresses, HttpCachingDns.interleave(ipv4Addresses));
+        List<InetAddress> singleAddress = Collections.singletonList(address("2001:db8::1"));
+        assertSame(singleAddress, HttpCachingDns.interleave(singleAddress));
+    }
+
+    private static class FakeDns implements Dns {
+        private final AtomicInteger lookupCount = new AtomicInteger();
+        private volatile List<InetAddress> addresses;
+        private volatile UnknownHostException failure;
+        private volatile CountDownLatch gate;
+
+        FakeDns(InetAddress address) {
+            this.addresses = Collections.singletonList(address);
+        }
+
+        @Override
+        public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+            lookupCount.incrementAndGet();
+            CountDownLatch currentGate = gate;
+            if (currentGate != null) {
+                try {
+                    currentGate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return addresses;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+package pjq.commons.utils.http.okhttp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import pjq.commons.utils.http.okhttp.HttpCircuitBreaker.State;
+
+/**
+ * {@link HttpCircuitBreaker}的状态转换
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public class HttpCircuitBreakerTest {
+    private static final long OPEN_DURATION_MILLIS = 50;
+
+    private static HttpCircuitBreaker newCircuitBreaker(double failureRateThreshold) {
+        return new HttpCircuitBreaker(HttpResiliencePolicy.builder().circuitBreakerEnabled(true)
+            .failureRateThreshold(failureRateThreshold).slidingWindowSize(4).minimumCalls(4)
+            .openDurationMillis(OPEN_DURATION_MILLIS).build());
+    }
+
+    private static void record(HttpCircuitBreaker circuitBreaker, boolean... outcomes) {
+        for (boolean isSuccess : outcomes) {
+            circuitBreaker.record(isSuccess);
+        }
+    }
+
+    private static HttpCircuitBreaker openAndWait() throws InterruptedException {
+        HttpCircuitBreaker circuitBreaker = newCircuitBreaker(0.5);
+        record(circuitBreaker, false, false, false, false);
+        assertEquals(State.OPEN, circuitBreaker.getState());
+        Thread.sleep(OPEN_DURATION_MILLIS * 2);
+        return circuitBreaker;
+    }
+
+    @Test
+    public void staysClosedBelowMinimumCalls() {
+        HttpCircuitBreaker circuitBreaker = newCircuitBreaker(0.5);
+        record(circuitBreaker, false, false, false);
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    public void opensAtFailureRateThreshold() {
+        HttpCircuitBreaker circuitBreaker = newCircuitBreaker(0.5);
+        record(circuitBreaker, true, true, false);
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+        record(circuitBreaker, false);
+        assertEquals(State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    public void onlyCountsOutcomesInSlidingWindow() {
+        HttpCircuitBreaker circuitBreaker = newCircuitBreaker(0.75);
+        record(circuitBreaker, false, false, true, true, true, true, false, false);
+        assertEquals(State.CLOSED, circuitBreaker.getState()); // 窗口内为2/4
+        record(circuitBreaker, false);
+        assertEquals(State.OPEN, circuitBreaker.getState()); // 窗口内为3/4，按全部记录算只有5/9
+    }
+
+    @Test
+    public void halfOpenAllowsSingleProbeAndClosesOnSuccess() throws InterruptedException {
+        HttpCircuitBreaker circuitBreaker = openAndWait();
+        assertTrue(circuitBreaker.tryAcquire());
+        assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire()); // 试探请求未结束时不放行其它请求
+
+        circuitBreaker.record(true);
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+
+        // 恢复后重新统计，之前的失败不再计算
+        record(circuitBreaker, false, true, true);
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void halfOpenReopensOnFailure() throws InterruptedException {
+        HttpCircuitBreaker circuitBreaker = openAndWait();
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.record(false);
+        assertEquals(State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    public void releaseFreesHalfOpenProbe() throws InterruptedException {
+        HttpCircuitBreaker circuitBreaker = openAndWait();
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.release(); // 试探请求被取消，没有结果
+        assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package pjq.commons.utils.http.okhttp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * {@link HttpProtocolMode}对应的协议列表及客户端配置
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public class HttpProtocolModeTest {
+    @Test
+    public void autoNegotiatesHttp2OnlyForHttps() {
+        assertEquals(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1), HttpProtocolMode.AUTO.httpsProtocols());
+        assertEquals(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1), HttpProtocolMode.AUTO.httpProtocols());
+    }
+
+    @Test
+    public void http11DisablesHttp2() {
+        assertEquals(Collections.singletonList(Protocol.HTTP_1_1), HttpProtocolMode.HTTP_1_1.httpProtocols());
+        assertEquals(Collections.singletonList(Protocol.HTTP_1_1), HttpProtocolMode.HTTP_1_1.httpsProtocols());
+    }
+
+    @Test
+    public void h2cUsesPriorKnowledgeForHttpOnly() {
+        assertEquals(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE), HttpProtocolMode.H2C.httpProtocols());
+        assertEquals(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1), HttpProtocolMode.H2C.httpsProtocols());
+    }
+
+    @Test
+    public void holderAppliesProtocolMode() {
+        OKHttpClientHolder holder =
+            OKHttpClientHolder.of(OKHttpClientConfig.builder().protocolMode(HttpProtocolMode.H2C).build());
+        try {
+            assertEquals(HttpProtocolMode.H2C.httpProtocols(), holder.getHttpClient().protocols());
+            assertEquals(HttpProtocolMode.H2C.httpsProtocols(), holder.getHttpsClient().protocols());
+        } finally {
+            holder.shutdown();
+        }
+    }
+
+    @Test
+    public void h2cRoundTripWithPriorKnowledge() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            // 只支持h2c的服务端，HTTP/1.1的请求会失败
+            server.setProtocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+            server.enqueue(new MockResponse().setBody("ok"));
+            server.enqueue(new MockResponse().setBody("ok"));
+            server.start();
+            String url = server.url("/h2c").toString();
+
+            OKHttpSender sender = OKHttpSender.create(OKHttpClientConfig.builder().protocolMode(HttpProtocolMode.H2C)
+                .logPolicy(HttpLogPolicy.builder().level(HttpLogLevel.NONE).build()).build());
+            try {
+                Request request = sender.createHttpGet(url, null);
+                try (Response response = sender.createCommonClient(url).newCall(request).execute()) {
+                    assertEquals(Protocol.H2_PRIOR_KNOWLEDGE, response.protocol());
+                    assertEquals("ok", response.body().string());
+                }
+                assertEquals("ok", sender.httpGet(url));
+                assertEquals("/h2c", server.takeRequest().getPath());
+                assertEquals(1, server.takeRequest().getSequenceNumber()); // 第二个请求复用同一个连接
+            } finally {
+                sender.shutdown();
+            }
+        }
+    }
+}
\ No newline at end of file
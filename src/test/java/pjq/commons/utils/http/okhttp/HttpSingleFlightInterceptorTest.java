@@ -0,0 +1,118 @@
+package pjq.commons.utils.http.okhttp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * {@link HttpSingleFlightInterceptor}只合并header完全相同的请求，使用JDK自带的HttpServer模拟服务端
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public class HttpSingleFlightInterceptorTest {
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ExecutorService serverExecutor;
+    private ExecutorService clientExecutor;
+    private HttpServer server;
+    private String url;
+    private OKHttpSender sender;
+
+    @BeforeEach
+    public void start() throws IOException {
+        serverExecutor = Executors.newFixedThreadPool(4);
+        clientExecutor = Executors.newFixedThreadPool(2);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(serverExecutor);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/resource";
+        sender = OKHttpSender.create(OKHttpClientConfig.builder().singleFlight(true)
+            .logPolicy(HttpLogPolicy.builder().level(HttpLogLevel.NONE).build()).build());
+    }
+
+    @AfterEach
+    public void stop() {
+        release.countDown();
+        sender.shutdown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        clientExecutor.shutdownNow();
+    }
+
+    /**
+     * 等到测试放行后才返回，返回报文为请求的Authorization
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = String.valueOf(exchange.getRequestHeaders().getFirst("Authorization"))
+            .getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private Future<String> get(String authorization) {
+        return clientExecutor.submit(() -> sender.httpExecute(sender.createCommonClient(url),
+            sender.createHttpGet(url, Collections.singletonMap("Authorization", authorization))));
+    }
+
+    private void awaitRequestCount(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (requestCount.get() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void doesNotCoalesceRequestsWithDifferentCredentials() throws Exception {
+        Future<String> first = get("Bearer user-a");
+        awaitRequestCount(1);
+        Future<String> second = get("Bearer user-b");
+        awaitRequestCount(2);
+        release.countDown();
+
+        assertEquals("Bearer user-a", first.get(5, TimeUnit.SECONDS));
+        assertEquals("Bearer user-b", second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, requestCount.get());
+        assertEquals(0, sender.getSingleFlightStats().getCollapsedCount());
+    }
+
+    @Test
+    public void coalescesIdenticalRequests() throws Exception {
+        Future<String> first = get("Bearer user-a");
+        awaitRequestCount(1);
+        Future<String> second = get("Bearer user-a");
+        Thread.sleep(300); // 让第二个请求进入等待
+        release.countDown();
+
+        assertEquals("Bearer user-a", first.get(5, TimeUnit.SECONDS));
+        assertEquals("Bearer user-a", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, requestCount.get());
+        assertEquals(1, sender.getSingleFlightStats().getCollapsedCount());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package pjq.commons.utils.http.okhttp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * 长连接与每次请求都关闭连接(原来的Connection: close方式)的每秒请求数及连接数对比，使用JDK自带的HttpServer模拟服务端<br>
+ * 只断言连接数，每秒请求数与机器有关，只打印出来
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public class KeepAliveBenchmarkTest {
+    private static final int WARM_UP_REQUESTS = 50;
+    private static final int REQUESTS = 500;
+    private static final byte[] BODY = "ok".getBytes(StandardCharsets.UTF_8);
+
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private ExecutorService serverExecutor;
+    private HttpServer server;
+    private String url;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(serverExecutor);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort()); // 每个客户端端口对应一个TCP连接
+        exchange.sendResponseHeaders(200, BODY.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(BODY);
+        }
+    }
+
+    /**
+     * 顺序发送请求
+     *
+     * @return 每秒请求数
+     */
+    private double run(boolean keepAlive) throws Exception {
+        OKHttpSender sender = OKHttpSender.create(OKHttpClientConfig.builder().keepAlive(keepAlive)
+            .logPolicy(HttpLogPolicy.builder().level(HttpLogLevel.NONE).build()).build());
+        try {
+            for (int i = 0; i < WARM_UP_REQUESTS; i++) {
+                sender.httpGet(url);
+            }
+            clientPorts.clear();
+            long beginTime = System.nanoTime();
+            for (int i = 0; i < REQUESTS; i++) {
+                assertEquals("ok", sender.httpGet(url));
+            }
+            return REQUESTS * 1e9 / (System.nanoTime() - beginTime);
+        } finally {
+            sender.shutdown();
+        }
+    }
+
+    @Test
+    public void keepAliveReusesConnections() throws Exception {
+        double closeThroughput = run(false);
+        int closeConnections = clientPorts.size();
+        double keepAliveThroughput = run(true);
+        int keepAliveConnections = clientPorts.size();
+
+        System.out.printf("Connection: close  %.0f req/s, %d connections%n", closeThroughput, closeConnections);
+        System.out.printf("keep-alive         %.0f req/s, %d connections%n", keepAliveThroughput,
+            keepAliveConnections);
+        assertTrue(closeConnections > REQUESTS / 2, "关闭连接模式只使用了" + closeConnections + "个连接");
+        assertTrue(keepAliveConnections <= 2, "长连接模式使用了" + keepAliveConnections + "个连接");
+    }
+}
\ No newline at end of file
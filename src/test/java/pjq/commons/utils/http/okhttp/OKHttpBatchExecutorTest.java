@@ -0,0 +1,89 @@
+package pjq.commons.utils.http.okhttp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * {@link OKHttpBatchExecutor}超过截止时间后的处理，使用JDK自带的HttpServer模拟服务端
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public class OKHttpBatchExecutorTest {
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ExecutorService serverExecutor;
+    private HttpServer server;
+    private String url;
+    private OKHttpSender sender;
+
+    @BeforeEach
+    public void start() throws IOException {
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(serverExecutor);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort();
+        sender = OKHttpSender.create(OKHttpClientConfig.builder()
+            .logPolicy(HttpLogPolicy.builder().level(HttpLogLevel.NONE).build()).build());
+    }
+
+    @AfterEach
+    public void stop() {
+        release.countDown();
+        sender.shutdown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        if (exchange.getRequestURI().getPath().startsWith("/slow")) {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Test
+    public void deadlineClosesBatchAndIgnoresLateCallbacks() throws Exception {
+        AtomicInteger handledCount = new AtomicInteger();
+        OKHttpBatchExecutor executor = new OKHttpBatchExecutor(sender, 4, 4);
+        OKHttpBatchExecutor.BatchSummary summary = executor.execute(
+            Arrays.asList(sender.createHttpGet(url + "/fast", null), sender.createHttpGet(url + "/slow", null)),
+            (request, result, error) -> handledCount.incrementAndGet(), HttpDeadline.afterMillis(300));
+
+        assertEquals(2, summary.getTotal());
+        assertEquals(1, summary.getSuccessCount());
+        assertEquals(1, summary.getFailureCount());
+        assertEquals(2, handledCount.get());
+
+        // 截止时间后服务端才返回，不再回调
+        release.countDown();
+        Thread.sleep(300);
+        assertEquals(2, handledCount.get());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,148 @@
+package pjq.commons.utils.http.okhttp;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * {@link OKHttpSenderBase#httpGetToGetFile}的断点续传，使用JDK自带的HttpServer模拟服务端
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public class OKHttpSenderDownloadTest {
+    private static final String ETAG = "\"v1\"";
+
+    private final byte[] content = new byte[1000];
+    private final List<String> ranges = new CopyOnWriteArrayList<>();
+    private volatile String wrongContentRange;
+    private volatile boolean rangeNotSatisfiable;
+
+    private HttpServer server;
+    private String url;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte)i;
+        }
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/file", this::handle);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/file";
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    /**
+     * 支持Range及If-Range的简单文件服务
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        ranges.add(range == null ? "" : range);
+        exchange.getResponseHeaders().set("ETag", ETAG);
+        if (range != null && rangeNotSatisfiable) {
+            exchange.sendResponseHeaders(416, -1);
+            exchange.close();
+            return;
+        }
+
+        byte[] body = content;
+        int statusCode = 200;
+        if (range != null && ETAG.equals(exchange.getRequestHeaders().getFirst("If-Range"))) {
+            int start = Integer.parseInt(range.substring("bytes=".length(), range.indexOf('-')));
+            String contentRange = "bytes " + start + "-" + (content.length - 1) + "/" + content.length;
+            if (wrongContentRange != null) {
+                contentRange = wrongContentRange;
+                start = Integer.parseInt(contentRange.substring("bytes ".length(), contentRange.indexOf('-')));
+            }
+            body = Arrays.copyOfRange(content, start, content.length);
+            statusCode = 206;
+            exchange.getResponseHeaders().set("Content-Range", contentRange);
+        }
+        exchange.sendResponseHeaders(statusCode, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private String prepareTempFile(int existingBytes, String validator) throws IOException {
+        String filePath = tempDir.resolve("file.bin").toString();
+        Files.write(Paths.get(filePath + ".download"), Arrays.copyOf(content, existingBytes));
+        Files.write(Paths.get(filePath + ".download.validator"), validator.getBytes(StandardCharsets.UTF_8));
+        return filePath;
+    }
+
+    private void assertDownloaded(String filePath) throws IOException {
+        assertArrayEquals(content, Files.readAllBytes(Paths.get(filePath)));
+        assertFalse(Files.exists(Paths.get(filePath + ".download")));
+        assertFalse(Files.exists(Paths.get(filePath + ".download.validator")));
+    }
+
+    @Test
+    public void downloadsWholeFileWithoutTempFile() throws Exception {
+        String filePath = tempDir.resolve("file.bin").toString();
+        OKHttpSender.getInstance().httpGetFile(url, filePath, true, null);
+        assertDownloaded(filePath);
+        assertEquals(Arrays.asList(""), ranges);
+    }
+
+    @Test
+    public void resumesWhenValidatorMatches() throws Exception {
+        String filePath = prepareTempFile(400, ETAG);
+        OKHttpSender.getInstance().httpGetFile(url, filePath, true, null);
+        assertDownloaded(filePath);
+        assertEquals(Arrays.asList("bytes=400-"), ranges);
+    }
+
+    @Test
+    public void restartsWhenFileChanged() throws Exception {
+        String filePath = prepareTempFile(400, "\"v0\""); // If-Range不匹配，服务端返回完整文件
+        OKHttpSender.getInstance().httpGetFile(url, filePath, true, null);
+        assertDownloaded(filePath);
+        assertEquals(Arrays.asList("bytes=400-"), ranges);
+    }
+
+    @Test
+    public void restartsWhenContentRangeMismatched() throws Exception {
+        String filePath = prepareTempFile(400, ETAG);
+        wrongContentRange = "bytes 500-999/1000";
+        OKHttpSender.getInstance().httpGetFile(url, filePath, true, null);
+        assertDownloaded(filePath);
+        assertEquals(Arrays.asList("bytes=400-", ""), ranges);
+    }
+
+    @Test
+    public void restartsWhenRangeNotSatisfiable() throws Exception {
+        String filePath = prepareTempFile(1000, ETAG);
+        rangeNotSatisfiable = true;
+        OKHttpSender.getInstance().httpGetFile(url, filePath, true, null);
+        assertDownloaded(filePath);
+        assertEquals(Arrays.asList("bytes=1000-", ""), ranges);
+    }
+}
\ No newline at end of file
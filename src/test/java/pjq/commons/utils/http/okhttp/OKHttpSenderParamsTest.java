@@ -0,0 +1,70 @@
+package pjq.commons.utils.http.okhttp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import okhttp3.FormBody;
+import okhttp3.Request;
+import pjq.commons.utils.http.HttpQueryParams;
+
+/**
+ * GET/POST请求参数的拼接(参数值中的&amp;号及重复的参数)
+ *
+ * @author pengjianqiang
+ * @date 2026年10月16日
+ */
+public class OKHttpSenderParamsTest {
+    private static final String URL = "http://127.0.0.1/path";
+
+    private OKHttpSender sender;
+
+    @BeforeEach
+    public void createSender() {
+        sender = OKHttpSender.create(OKHttpClientConfig.builder()
+            .logPolicy(HttpLogPolicy.builder().level(HttpLogLevel.NONE).build()).build());
+    }
+
+    @AfterEach
+    public void shutdown() {
+        sender.shutdown();
+    }
+
+    @Test
+    public void getKeepsAmpersandInExtraParamValue() throws Exception {
+        Request request = sender.createHttpGet(URL + "?a=1&a=2",
+            HttpQueryParams.of(Collections.singletonMap("q", "x&y=z")), null);
+        assertEquals("a=1&a=2&q=x%26y%3Dz", request.url().encodedQuery());
+        assertEquals("x&y=z", request.url().queryParameter("q"));
+    }
+
+    @Test
+    public void postKeyValueStrKeepsDuplicates() throws Exception {
+        Request request =
+            sender.createHttpPost(URL + "?b=1", "a=1&b=2", OKHttpSenderBase.ParamDataType.KEY_VALUE_STR, null);
+        FormBody body = (FormBody)request.body();
+        assertEquals(3, body.size());
+        assertEquals("b=1", body.name(0) + "=" + body.value(0));
+        assertEquals("a=1", body.name(1) + "=" + body.value(1));
+        assertEquals("b=2", body.name(2) + "=" + body.value(2));
+    }
+
+    @Test
+    public void postKeyValueMapKeepsAmpersandAndDoesNotModifyMap() throws Exception {
+        Map<String, String> paramMap = new LinkedHashMap<>();
+        paramMap.put("q", "x&y");
+        Request request =
+            sender.createHttpPost(URL + "?q=1", paramMap, OKHttpSenderBase.ParamDataType.KEY_VALUE_MAP, null);
+        FormBody body = (FormBody)request.body();
+        assertEquals(2, body.size());
+        assertEquals("1", body.value(0));
+        assertEquals("x&y", body.value(1));
+        assertEquals(Collections.singletonMap("q", "x&y"), paramMap);
+    }
+}
\ No newline at end of file